@@ -0,0 +1,51 @@
+package io.code_gems.cloud.synced_cache.benchmarks;
+
+import io.code_gems.cloud.synced_cache.SnapshotFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Build time of a snapshot out of a supplied collection, per snapshot factory - sequential and parallel indexing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildBenchmark {
+
+    @Param({"100000", "2000000"})
+    int size;
+
+    @Param({"indexed", "indexedParallel"})
+    String snapshotFactory;
+
+    private List<String> supplied;
+    private ForkJoinPool pool;
+    private SnapshotFactory<String> factory;
+
+    @Setup
+    public void setUp() {
+        supplied = IntStream.range(0, size).mapToObj(i -> "item-" + i).collect(Collectors.toList());
+        pool = new ForkJoinPool();
+        factory = "indexedParallel".equals(snapshotFactory) ? SnapshotFactory.indexed(pool) : SnapshotFactory.indexed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Collection<String> build() {
+        return factory.create(supplied);
+    }
+
+}
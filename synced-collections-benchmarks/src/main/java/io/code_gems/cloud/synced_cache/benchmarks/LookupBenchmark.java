@@ -0,0 +1,126 @@
+package io.code_gems.cloud.synced_cache.benchmarks;
+
+import io.code_gems.cloud.synced_cache.SnapshotFactory;
+import io.code_gems.cloud.synced_cache.SyncedCollection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Read throughput of a synced collection, compared with plain concurrent-safe baselines - across collection sizes,
+ * supplied collection types and snapshot factories. Reader thread counts are set with JMH's {@code -t} option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    private static final int LOOKUP_BATCH_SIZE = 16;
+    private static final Duration NO_RESYNC_INTERVAL = Duration.ofHours(1);
+
+    public enum Implementation {
+        STRICT_UNMODIFIABLE,
+        STRICT_INDEXED,
+        HASH_SET,
+        CONCURRENT_HASH_SET
+    }
+
+    public enum SuppliedType {
+        ARRAY_LIST,
+        HASH_SET
+    }
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param
+    Implementation implementation;
+
+    @Param
+    SuppliedType suppliedType;
+
+    private Collection<String> collection;
+    private String[] hits;
+    private String[] misses;
+    private Collection<String> lookupBatch;
+
+    @Setup
+    public void setUp() {
+        List<String> elements = IntStream.range(0, size).mapToObj(i -> "item-" + i).collect(Collectors.toList());
+        collection = create(elements);
+        hits = elements.toArray(new String[0]);
+        misses = IntStream.range(size, size * 2).mapToObj(i -> "item-" + i).toArray(String[]::new);
+        lookupBatch = elements.subList(0, Math.min(LOOKUP_BATCH_SIZE, size));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (collection instanceof SyncedCollection) {
+            ((SyncedCollection<String>) collection).stopSync();
+        }
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return collection.contains(hits[ThreadLocalRandom.current().nextInt(hits.length)]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return collection.contains(misses[ThreadLocalRandom.current().nextInt(misses.length)]);
+    }
+
+    @Benchmark
+    public boolean containsAll() {
+        return collection.containsAll(lookupBatch);
+    }
+
+    @Benchmark
+    public void iterator(Blackhole blackhole) {
+        for (String element : collection) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public long stream() {
+        return collection.stream().filter(element -> element.length() > 8).count();
+    }
+
+    private Collection<String> create(List<String> elements) {
+        Collection<String> supplied = suppliedType == SuppliedType.ARRAY_LIST ? new ArrayList<>(elements) : new HashSet<>(elements);
+        switch (implementation) {
+            case STRICT_UNMODIFIABLE:
+                return syncedWith(supplied, SnapshotFactory.unmodifiable());
+            case STRICT_INDEXED:
+                return syncedWith(supplied, SnapshotFactory.indexed());
+            case HASH_SET:
+                return new HashSet<>(supplied);
+            case CONCURRENT_HASH_SET:
+                Set<String> set = ConcurrentHashMap.newKeySet(supplied.size());
+                set.addAll(supplied);
+                return set;
+            default:
+                throw new IllegalArgumentException("unknown implementation: " + implementation);
+        }
+    }
+
+    private static Collection<String> syncedWith(Collection<String> supplied, SnapshotFactory<String> snapshotFactory) {
+        return SyncedCollection.build(() -> supplied)
+                               .initialCollection(supplied)
+                               .snapshotFactory(snapshotFactory)
+                               .interval(NO_RESYNC_INTERVAL)
+                               .buildAndSync();
+    }
+
+}
@@ -0,0 +1,100 @@
+package io.code_gems.cloud.synced_cache.benchmarks;
+
+import io.code_gems.cloud.synced_cache.SnapshotFactory;
+import io.code_gems.cloud.synced_cache.SyncedCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Latency of a snapshot swap - an on-demand refresh, from request to publication of the fetched snapshot - while
+ * concurrent readers keep looking up the synced collection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwapBenchmark {
+
+    private static final Duration NO_RESYNC_INTERVAL = Duration.ofHours(1);
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"unmodifiable", "indexed"})
+    String snapshotFactory;
+
+    @Param({"0", "3"})
+    int readers;
+
+    private SyncedCollection<String> collection;
+    private String[] lookups;
+    private final List<Thread> readerThreads = new ArrayList<>();
+    private volatile boolean reading;
+    private final AtomicLong readerHits = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        List<String> even = IntStream.range(0, size).mapToObj(i -> "item-" + i * 2).collect(Collectors.toList());
+        List<String> odd = IntStream.range(0, size).mapToObj(i -> "item-" + (i * 2 + 1)).collect(Collectors.toList());
+        var alternating = new Object() {
+            private boolean flip;
+
+            synchronized List<String> next() {
+                flip = !flip;
+                return flip ? even : odd;
+            }
+        };
+        collection = SyncedCollection.build(alternating::next)
+                                     .initialCollection(even)
+                                     .snapshotFactory("indexed".equals(snapshotFactory) ? SnapshotFactory.indexed() : SnapshotFactory.unmodifiable())
+                                     .interval(NO_RESYNC_INTERVAL)
+                                     .buildAndSync();
+        lookups = IntStream.range(0, size * 2).mapToObj(i -> "item-" + i).toArray(String[]::new);
+
+        reading = true;
+        for (int i = 0; i < readers; i++) {
+            var reader = new Thread(this::read, "swap-benchmark-reader-" + i);
+            reader.setDaemon(true);
+            reader.start();
+            readerThreads.add(reader);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        reading = false;
+        for (Thread reader : readerThreads) {
+            reader.join();
+        }
+        readerThreads.clear();
+        collection.stopSync();
+    }
+
+    @Benchmark
+    public long swap() {
+        return collection.refreshNow().join();
+    }
+
+    private void read() {
+        var random = ThreadLocalRandom.current();
+        long hits = 0;
+        while (reading) {
+            if (collection.contains(lookups[random.nextInt(lookups.length)])) {
+                hits++;
+            }
+        }
+        // published, so that the lookups are not optimized away
+        readerHits.addAndGet(hits);
+    }
+
+}
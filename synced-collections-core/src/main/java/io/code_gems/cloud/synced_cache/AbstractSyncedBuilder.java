@@ -0,0 +1,93 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.time.Duration;
+
+/**
+ * Base of all synced structure builders, holding the options of the sync process they share.
+ * @param <B> the concrete builder type
+ */
+public abstract class AbstractSyncedBuilder<B extends AbstractSyncedBuilder<B>> {
+
+    private Duration interval;
+    private Integer maxAllowedNoSyncIntervals;
+    private SyncScheduler syncScheduler;
+    private Duration jitter;
+    private Integer priority;
+    private SyncListener listener;
+    private Duration minRefreshGap;
+
+    AbstractSyncedBuilder() {
+    }
+
+    public B interval(Duration interval) {
+        this.interval = interval;
+        return self();
+    }
+
+    public B maxAllowedNoSyncIntervals(Integer intervals) {
+        this.maxAllowedNoSyncIntervals = intervals;
+        return self();
+    }
+
+    /**
+     * Sets the scheduler running the syncs. Defaults to {@link SyncScheduler#shared()}.
+     */
+    public B syncScheduler(SyncScheduler syncScheduler) {
+        this.syncScheduler = syncScheduler;
+        return self();
+    }
+
+    /**
+     * Sets the max random delay added to each sync interval - including the one before the first sync - spreading
+     * syncs of structures that would otherwise fire at the same moment. Defaults to none.
+     */
+    public B jitter(Duration jitter) {
+        this.jitter = jitter;
+        return self();
+    }
+
+    /**
+     * Sets the priority of the syncs, when more syncs are due than the scheduler runs concurrently -
+     * higher priority syncs run first. Defaults to 0.
+     */
+    public B priority(Integer priority) {
+        this.priority = priority;
+        return self();
+    }
+
+    /**
+     * Sets a listener notified of each sync outcome and out of sync read - e.g. {@link SyncMetrics}.
+     * Defaults to none.
+     */
+    public B listener(SyncListener listener) {
+        this.listener = listener;
+        return self();
+    }
+
+    /**
+     * Sets the min time between the starts of consecutive syncs, protecting the backing source from on-demand
+     * refreshes: a refresh requested sooner is delayed, and a periodic sync due sooner is skipped. Defaults to none.
+     */
+    public B minRefreshGap(Duration minRefreshGap) {
+        this.minRefreshGap = minRefreshGap;
+        return self();
+    }
+
+    SyncOptions syncOptions() {
+        return SyncOptions.builder()
+                .interval(interval)
+                .maxAllowedNoSyncIntervals(maxAllowedNoSyncIntervals)
+                .syncScheduler(syncScheduler)
+                .jitter(jitter)
+                .priority(priority)
+                .listener(listener)
+                .minRefreshGap(minRefreshGap)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private B self() {
+        return (B) this;
+    }
+
+}
@@ -0,0 +1,101 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The elements of a snapshot with deltas applied, iterated once straight out of the snapshot - sparing a copy of it
+ * before the next snapshot is built: the snapshot elements not removed, in order, followed by the elements added and
+ * not in the snapshot already, in the order added. Only the removed and added elements are held.
+ * @param <E> the type of the Collection elements
+ */
+final class AppliedDeltas<E> implements Iterator<E> {
+
+    private final Collection<E> base;
+    private final Set<Object> removed = new HashSet<>();
+    private final Set<E> added = new LinkedHashSet<>();
+    private final Set<Object> addedInBase = new HashSet<>();
+    private Iterator<E> baseElements;
+    private Iterator<E> addedElements;
+    private E next;
+    private boolean hasNext;
+
+    AppliedDeltas(Collection<E> snapshot, List<SyncDelta<E>> deltas) {
+        Collection<E> elements = snapshot;
+        for (SyncDelta<E> delta : deltas) {
+            if (delta.isFull()) {
+                elements = List.of();
+                removed.clear();
+                added.clear();
+            }
+            for (E element : delta.getRemoved()) {
+                added.remove(element);
+                removed.add(element);
+            }
+            added.addAll(delta.getAdded());
+        }
+        this.base = elements;
+        this.baseElements = base.iterator();
+    }
+
+    /**
+     * The number of elements iterated at most.
+     */
+    int sizeHint() {
+        return (int) Math.min((long) base.size() + added.size(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!hasNext) {
+            advance();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasNext = false;
+        return next;
+    }
+
+    private void advance() {
+        while (baseElements != null && baseElements.hasNext()) {
+            E element = baseElements.next();
+            if (removed.contains(element)) {
+                continue;
+            }
+            if (added.contains(element)) {
+                // kept in place, rather than added again
+                addedInBase.add(element);
+            }
+            setNext(element);
+            return;
+        }
+        if (addedElements == null) {
+            baseElements = null;
+            addedElements = added.iterator();
+        }
+        while (addedElements.hasNext()) {
+            E element = addedElements.next();
+            if (!addedInBase.contains(element)) {
+                setNext(element);
+                return;
+            }
+        }
+    }
+
+    private void setNext(E element) {
+        next = element;
+        hasNext = true;
+    }
+
+}
@@ -0,0 +1,34 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A {@link SyncCollectionSupplier} fetching the backing collection asynchronously - e.g. with a non-blocking DB or
+ * HTTP client - so that the sync thread is never held by the fetch itself.
+ * <p>
+ *      Fetches are awaited for at most the fetch timeout set on the builder, and may be hedged - see
+ *      {@link SyncedCollection.SyncedCollectionBuilder#fetchTimeout(java.time.Duration)} and
+ *      {@link SyncedCollection.SyncedCollectionBuilder#hedgeAfterPercentile(Double)}.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+@FunctionalInterface
+public interface AsyncSyncCollectionSupplier<E> extends SyncCollectionSupplier<E> {
+
+    CompletableFuture<? extends Collection<E>> getAsync();
+
+    @Override
+    default Collection<E> get() {
+        try {
+            return getAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Objects;
+
+/**
+ * An immutable, blocked Bloom filter: all bits of an element are set within a single 512-bit block - one cache line -
+ * so a lookup costs a single cache miss at most, at the price of a slightly higher false positive rate than a
+ * classic Bloom filter of the same size, compensated for by sizing.
+ * <p>
+ *      Built by adding all elements up front; elements are hashed by their {@code hashCode}, so equal elements always
+ *      map to the same bits.
+ * </p>
+ */
+final class BlockedBloomFilter {
+
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+    private static final int MAX_BLOCKS = (Integer.MAX_VALUE - BLOCK_WORDS) / BLOCK_WORDS;
+    private static final int MAX_HASHES = 16;
+    // blocks fill unevenly - extra bits keep the actual false positive rate near the requested one
+    private static final double BLOCKING_SLACK = 1.2;
+
+    private final long[] words;
+    private final int blocks;
+    private final int hashes;
+
+    BlockedBloomFilter(int expectedElements, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be in the range (0, 1): " + falsePositiveRate);
+        }
+        double bitsPerElement = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) * BLOCKING_SLACK;
+        long bits = (long) Math.ceil(Math.max(expectedElements, 1) * bitsPerElement);
+        this.blocks = (int) Math.min(MAX_BLOCKS, Math.max(1, (bits + BLOCK_BITS - 1) / BLOCK_BITS));
+        this.words = new long[blocks * BLOCK_WORDS];
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(-Math.log(falsePositiveRate) / Math.log(2))));
+    }
+
+    void add(Object element) {
+        long hash = hash(element);
+        int base = blockOf(hash) * BLOCK_WORDS;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    long sizeInBytes() {
+        return MemoryEstimated.ARRAY_HEADER_BYTES + (long) Long.BYTES * words.length;
+    }
+
+    /**
+     * @return false if the element was definitely not added, true if it might have been
+     */
+    boolean mightContain(Object element) {
+        long hash = hash(element);
+        int base = blockOf(hash) * BLOCK_WORDS;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int blockOf(long hash) {
+        // maps the upper hash bits uniformly onto [0, blocks), with no modulo
+        long blockHash = mix(hash) >>> 32;
+        return (int) ((blockHash * blocks) >>> 32);
+    }
+
+    private static long hash(Object element) {
+        return mix(Objects.hashCode(element) * 0x9E3779B97F4A7C15L);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+}
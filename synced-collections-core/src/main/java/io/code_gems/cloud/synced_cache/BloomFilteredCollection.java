@@ -0,0 +1,87 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * An immutable snapshot fronted by a {@link BlockedBloomFilter}: {@link #contains(Object)} answers most misses from
+ * the filter's bit array, consulting the wrapped snapshot only on a possible hit. Lookups are exact either way.
+ * All other operations are delegated to the wrapped snapshot.
+ * @param <E> the type of the Collection elements
+ */
+final class BloomFilteredCollection<E> extends ReadOnlyCollection<E> implements MemoryEstimated, Releasable {
+
+    private final Collection<E> snapshot;
+    private final BlockedBloomFilter filter;
+
+    BloomFilteredCollection(Collection<E> snapshot, Iterable<?> elements, int elementCount, double falsePositiveRate) {
+        this.snapshot = snapshot;
+        this.filter = new BlockedBloomFilter(elementCount, falsePositiveRate);
+        elements.forEach(filter::add);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return filter.mightContain(o) && snapshot.contains(o);
+    }
+
+    /**
+     * @return the wrapped snapshot
+     */
+    Collection<E> getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public long estimatedBytes(ToLongFunction<Object> elementBytes) {
+        return OBJECT_HEADER_BYTES + filter.sizeInBytes() + MemoryEstimated.estimatedBytesOf(snapshot, elementBytes);
+    }
+
+    @Override
+    public ReleaseGuard releaseGuard() {
+        return ReleaseGuard.of(snapshot);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return snapshot.iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return snapshot.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return snapshot.toArray(a);
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        snapshot.forEach(action);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return snapshot.spliterator();
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return snapshot.stream();
+    }
+
+}
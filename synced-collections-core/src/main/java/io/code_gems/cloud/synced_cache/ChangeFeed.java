@@ -0,0 +1,32 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.function.Consumer;
+
+/**
+ * A source pushing the changes of a backing collection as they happen - e.g. fed by change data capture, or by
+ * a message queue - letting a synced collection apply them within a debounce window, rather than waiting for its next
+ * sync. Polling the supplier then serves as a low-frequency safety resync.
+ * <p>
+ *      Changes are delivered as {@link SyncDelta}s, applied in order with the set semantics of incremental syncs.
+ *      Their versions are ignored.
+ * </p>
+ * @param <E> the type of the Collection elements
+ * @see InMemoryChangeFeed
+ */
+@FunctionalInterface
+public interface ChangeFeed<E> {
+
+    /**
+     * Starts delivering changes to the given subscriber, on any thread, until the returned subscription is closed.
+     */
+    Subscription subscribe(Consumer<SyncDelta<E>> subscriber);
+
+    @FunctionalInterface
+    interface Subscription extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+}
@@ -0,0 +1,139 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.extern.java.Log;
+
+import java.lang.ref.Cleaner;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * The subscribers to the changes of a synced collection. The changes of each new snapshot are computed and delivered
+ * on a shared pool of event threads, off the sync thread - one snapshot at a time, in the order synced.
+ * <p>
+ *      At most one delivery is pending at a time: snapshots synced while a delivery is pending or running are
+ *      coalesced into a single one, of the changes from the last delivered snapshot to the latest - so that a slow
+ *      subscriber holds no more than these two snapshots, however many syncs happen meanwhile.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+@Log
+final class ChangeSubscribers<E> {
+
+    private final List<Consumer<SyncDelta<E>>> subscribers = new CopyOnWriteArrayList<>();
+    // the snapshot the next delivery diffs from, if any - along with the latest one, pending delivery
+    private Collection<E> delivered;
+    private Cleaner.Cleanable deliveredPin;
+    private Collection<E> pending;
+    private Cleaner.Cleanable pendingPin;
+    private long pendingVersion;
+    private boolean delivering;
+
+    ChangeFeed.Subscription subscribe(Consumer<SyncDelta<E>> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    /**
+     * Delivers the changes from the previous snapshot to the next one - if there are any subscribers - coalesced with
+     * those of any snapshots not delivered yet.
+     */
+    synchronized void publish(Collection<E> previous, Collection<E> next, long version) {
+        if (subscribers.isEmpty()) {
+            if (!delivering) {
+                // diffed from the previous snapshot of the next sync, once subscribed again
+                clearDelivered();
+            }
+            return;
+        }
+        if (delivered == null) {
+            // snapshots releasable off-heap stay readable until diffed
+            deliveredPin = ReleaseGuard.pin(previous, previous);
+            delivered = previous;
+        }
+        if (pending != null) {
+            pendingPin.clean();
+        }
+        pendingPin = ReleaseGuard.pin(next, next);
+        pending = next;
+        pendingVersion = version;
+        if (!delivering) {
+            delivering = true;
+            EventThreads.POOL.execute(this::deliverPending);
+        }
+    }
+
+    /**
+     * Delivers the pending changes, until none are left.
+     */
+    private void deliverPending() {
+        while (true) {
+            Collection<E> from;
+            Collection<E> to;
+            Cleaner.Cleanable toPin;
+            long version;
+            synchronized (this) {
+                if (pending == null) {
+                    delivering = false;
+                    return;
+                }
+                from = delivered;
+                to = pending;
+                toPin = pendingPin;
+                version = pendingVersion;
+                pending = null;
+                pendingPin = null;
+            }
+            deliver(from, to, version);
+            synchronized (this) {
+                deliveredPin.clean();
+                delivered = to;
+                deliveredPin = toPin;
+            }
+        }
+    }
+
+    /**
+     * Never throws - a failed delivery would otherwise stop the deliveries pending after it.
+     */
+    private void deliver(Collection<E> previous, Collection<E> next, long version) {
+        if (subscribers.isEmpty()) {
+            // all unsubscribed since published - the diff would go unused
+            return;
+        }
+        SyncDelta<E> changes;
+        try {
+            changes = SnapshotDiff.between(previous, next, version);
+        } catch (Throwable e) {
+            log.warning("snapshot diff failed: " + e);
+            return;
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (Consumer<SyncDelta<E>> subscriber : subscribers) {
+            try {
+                subscriber.accept(changes);
+            } catch (Throwable e) {
+                log.warning("change subscriber failed: " + e);
+            }
+        }
+    }
+
+    private void clearDelivered() {
+        if (delivered != null) {
+            deliveredPin.clean();
+            delivered = null;
+            deliveredPin = null;
+        }
+    }
+
+    private static class EventThreads {
+        private static final Executor POOL =
+                Executors.newCachedThreadPool(SyncScheduler.daemonThreadFactory("synced-collections-events"));
+    }
+
+}
@@ -0,0 +1,26 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Options of the sync process specific to synced collections, next to the {@link SyncOptions} shared by all synced
+ * structures. Unset (null) options fall back to their defaults, or are disabled.
+ * @param <E> the type of the Collection elements
+ */
+@Value
+@Builder(toBuilder = true)
+class CollectionSyncOptions<E> {
+
+    SnapshotFactory<E> snapshotFactory;
+    Duration fullSyncInterval;
+    LocalSnapshotFile<E> localSnapshot;
+    MissOverlay<E> missOverlay;
+    SnapshotBudget snapshotBudget;
+    FetchPolicy<E> fetchPolicy;
+    ChangeFeed<E> changeFeed;
+    Duration changeDebounce;
+
+}
@@ -0,0 +1,19 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * A {@link SyncCollectionSupplier} able to cheaply tell the current version of the backing collection
+ * (e.g. an ETag, a last-modified timestamp or a change counter), sparing the fetch altogether while it is unchanged.
+ * <p>
+ *      The version is checked on each sync, before fetching. As long as it equals the version of the last fetched
+ *      collection, the current snapshot is kept in place as is. A {@code null} version always fetches.
+ * </p>
+ * <p>
+ *      May be combined with {@link IncrementalSyncCollectionSupplier} or {@link StreamingSyncCollectionSupplier}.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+public interface ConditionalSyncCollectionSupplier<E> extends SyncCollectionSupplier<E> {
+
+    String currentVersion() throws Exception;
+
+}
@@ -0,0 +1,81 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts Collection elements to and from bytes, for snapshots stored outside the Java heap.
+ * <p>
+ *      Encoding must be canonical: equal elements must be encoded to equal bytes, as lookups of encoded snapshots
+ *      compare encoded elements.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+public interface ElementCodec<E> {
+
+    byte[] encode(E element);
+
+    E decode(byte[] bytes);
+
+    /**
+     * Encodes the given element into the given buffer, if it fits - sparing lookups the allocation of
+     * {@link #encode(Object)}. Must produce the very same bytes. Defaults to copying the bytes of {@link #encode(Object)}.
+     * @return the number of encoded bytes - or -1, if more than the buffer holds
+     */
+    default int encodeInto(E element, byte[] buffer) {
+        byte[] bytes = encode(element);
+        if (bytes.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(bytes, 0, buffer, 0, bytes.length);
+        return bytes.length;
+    }
+
+    static ElementCodec<String> utf8() {
+        return new ElementCodec<>() {
+            @Override
+            public byte[] encode(String element) {
+                return element.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public int encodeInto(String element, byte[] buffer) {
+                int length = element.length();
+                // at most 3 bytes per char - a surrogate pair taking 4 bytes for 2 chars
+                if ((long) length * 3 > buffer.length) {
+                    return -1;
+                }
+                int position = 0;
+                for (int i = 0; i < length; i++) {
+                    char c = element.charAt(i);
+                    if (c < 0x80) {
+                        buffer[position++] = (byte) c;
+                    } else if (c < 0x800) {
+                        buffer[position++] = (byte) (0xC0 | c >> 6);
+                        buffer[position++] = (byte) (0x80 | c & 0x3F);
+                    } else if (!Character.isSurrogate(c)) {
+                        buffer[position++] = (byte) (0xE0 | c >> 12);
+                        buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                        buffer[position++] = (byte) (0x80 | c & 0x3F);
+                    } else if (Character.isHighSurrogate(c) && i + 1 < length
+                            && Character.isLowSurrogate(element.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, element.charAt(++i));
+                        buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                        buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                        buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                        buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+                    } else {
+                        // a lone surrogate - replaced, like String.getBytes does
+                        buffer[position++] = '?';
+                    }
+                }
+                return position;
+            }
+        };
+    }
+
+}
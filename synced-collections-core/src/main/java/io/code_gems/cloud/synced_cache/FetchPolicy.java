@@ -0,0 +1,211 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.extern.java.Log;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches the full backing collection of a synced collection within a time limit: from its supplier first, and then
+ * from each of its fallback suppliers in order, until one succeeds.
+ * <p>
+ *      Blocking suppliers are invoked on a shared, bounded pool of fetch threads, rather than on the sync thread, so
+ *      that a hung fetch is abandoned once timed out instead of holding the sync thread. A timed out fetch is
+ *      interrupted, freeing its fetch thread - as long as the supplier responds to interrupts. A fetch taking longer
+ *      than the hedge percentile of recent fetch latencies is hedged by a second, identical fetch - the first to
+ *      succeed wins, and the other one is cancelled.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+@Log
+final class FetchPolicy<E> {
+
+    private static final int LATENCY_SAMPLES = 128;
+    private static final int MIN_HEDGE_SAMPLES = 8;
+
+    private final Duration timeout;
+    private final Double hedgePercentile;
+    private final List<SyncCollectionSupplier<E>> fallbacks;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+
+    FetchPolicy(Duration timeout, Double hedgePercentile, List<SyncCollectionSupplier<E>> fallbacks) {
+        if (hedgePercentile != null && !(hedgePercentile > 0 && hedgePercentile < 100)) {
+            throw new IllegalArgumentException("hedge percentile must be in the range (0, 100): " + hedgePercentile);
+        }
+        this.timeout = timeout;
+        this.hedgePercentile = hedgePercentile;
+        this.fallbacks = List.copyOf(Optional.ofNullable(fallbacks).orElse(List.of()));
+    }
+
+    /**
+     * @return the collection fetched from the first supplier to succeed
+     * @throws Exception the failure of the given supplier, with the failures of its fallbacks suppressed
+     */
+    Collection<E> fetch(SyncCollectionSupplier<E> supplier) throws Exception {
+        try {
+            return fetchFrom(supplier, true);
+        } catch (Exception e) {
+            return fetchFallbacks(e);
+        }
+    }
+
+    /**
+     * @return the collection fetched from the first fallback supplier to succeed, after the given failure
+     * @throws Exception the given failure, with the failures of the fallbacks suppressed
+     */
+    Collection<E> fetchFallbacks(Exception failure) throws Exception {
+        for (int i = 0; i < fallbacks.size(); i++) {
+            try {
+                var fetched = fetchFrom(fallbacks.get(i), false);
+                log.warning("fetched from fallback supplier #" + (i + 1) + ", after failure: " + failure);
+                return fetched;
+            } catch (Exception e) {
+                failure.addSuppressed(e);
+            }
+        }
+        throw failure;
+    }
+
+    private Collection<E> fetchFrom(SyncCollectionSupplier<E> supplier, boolean primary) throws Exception {
+        if (timeout == null && !(supplier instanceof AsyncSyncCollectionSupplier) && (!primary || hedgePercentile == null)) {
+            return supplier.get();
+        }
+        long start = System.nanoTime();
+        long deadline = timeout == null ? Long.MAX_VALUE : start + timeout.toNanos();
+        var fetch = fetchAsync(supplier);
+        long hedgeDelay = primary ? hedgeDelayNanos() : Long.MAX_VALUE;
+        try {
+            if (hedgeDelay < deadline - start) {
+                try {
+                    return recordLatency(fetch.get(hedgeDelay, TimeUnit.NANOSECONDS), start);
+                } catch (TimeoutException e) {
+                    log.fine("hedging a fetch slower than " + Duration.ofNanos(hedgeDelay));
+                    fetch = firstSucceeded(fetch, fetchAsync(supplier));
+                }
+            }
+            var fetched = deadline == Long.MAX_VALUE
+                    ? fetch.get()
+                    : fetch.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return primary ? recordLatency(fetched, start) : fetched;
+        } catch (TimeoutException e) {
+            fetch.cancel(true);
+            throw new TimeoutException("fetch timed out after " + timeout);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return the fetch from the given supplier, in flight - on the fetch threads, unless the supplier is async.
+     *         Cancelling it interrupts its fetch thread.
+     */
+    static <E> CompletableFuture<Collection<E>> fetchAsync(SyncCollectionSupplier<E> supplier) {
+        return fetchAsync(supplier, FetchThreads.POOL);
+    }
+
+    /**
+     * @return the fetch from the given supplier, in flight - on the given executor, unless the supplier is async.
+     *         Cancelling it interrupts its fetch thread.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> CompletableFuture<Collection<E>> fetchAsync(SyncCollectionSupplier<E> supplier, Executor executor) {
+        if (supplier instanceof AsyncSyncCollectionSupplier) {
+            try {
+                return (CompletableFuture<Collection<E>>) ((AsyncSyncCollectionSupplier<E>) supplier).getAsync();
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        var fetch = new CompletableFuture<Collection<E>>();
+        var task = new FutureTask<>(supplier::get) {
+            @Override
+            protected void done() {
+                try {
+                    fetch.complete(get());
+                } catch (ExecutionException e) {
+                    fetch.completeExceptionally(e.getCause());
+                } catch (Exception e) {
+                    fetch.completeExceptionally(e);
+                }
+            }
+        };
+        // cancelling the fetch interrupts its fetch thread; a no-op once the task is done
+        fetch.whenComplete((fetched, e) -> task.cancel(true));
+        executor.execute(task);
+        return fetch;
+    }
+
+    private synchronized long hedgeDelayNanos() {
+        int samples = Math.min(latencyCount, LATENCY_SAMPLES);
+        if (hedgePercentile == null || samples < MIN_HEDGE_SAMPLES) {
+            return Long.MAX_VALUE;
+        }
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(samples * hedgePercentile / 100) - 1];
+    }
+
+    private synchronized Collection<E> recordLatency(Collection<E> fetched, long start) {
+        latencies[latencyCount++ % LATENCY_SAMPLES] = System.nanoTime() - start;
+        return fetched;
+    }
+
+    /**
+     * @return completed by the first of the given fetches to succeed - or exceptionally, once both failed.
+     *         Once completed, or cancelled, the fetch still in flight is cancelled.
+     */
+    private static <T> CompletableFuture<T> firstSucceeded(CompletableFuture<T> first, CompletableFuture<T> second) {
+        var result = new CompletableFuture<T>();
+        var failures = new AtomicInteger();
+        for (var fetch : List.of(first, second)) {
+            fetch.whenComplete((fetched, e) -> {
+                if (e == null) {
+                    result.complete(fetched);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+        result.whenComplete((fetched, e) -> {
+            first.cancel(true);
+            second.cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * The shared pool of fetch threads, growing with the number of fetches in flight up to a bound - beyond which
+     * fetches are queued - and shrinking once idle.
+     */
+    private static class FetchThreads {
+        private static final int MAX_FETCH_THREADS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+        private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor(MAX_FETCH_THREADS, MAX_FETCH_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                SyncScheduler.daemonThreadFactory("synced-collections-fetch"));
+
+        static {
+            POOL.allowCoreThreadTimeOut(true);
+        }
+    }
+
+}
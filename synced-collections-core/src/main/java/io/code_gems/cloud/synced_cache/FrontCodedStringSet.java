@@ -0,0 +1,381 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable, sorted set of strings, front-coded into a single byte array: strings are kept in buckets of
+ * {@value #BUCKET_SIZE}, each bucket starting with a complete string, followed by strings encoded as the length of the
+ * prefix they share with their predecessor and the remaining suffix. A sparse index of bucket offsets allows binary
+ * searching the bucket heads.
+ * <p>
+ *      Strings are encoded char by char - 1 to 3 bytes per UTF-16 char, as in CESU-8 - so that the byte order of
+ *      encoded strings matches {@link String#compareTo} order, and any string round-trips. Iteration follows that
+ *      order; duplicates are dropped, and null elements are not supported.
+ * </p>
+ */
+final class FrontCodedStringSet extends ReadOnlyCollection<String> implements MemoryEstimated {
+
+    static final int BUCKET_SIZE = 16;
+
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final byte[] data;
+    private final int[] bucketOffsets;
+    private final int size;
+
+    FrontCodedStringSet(Collection<String> source) {
+        String[] sorted = source.toArray(new String[0]);
+        for (String element : sorted) {
+            Objects.requireNonNull(element, "null elements are not supported");
+        }
+        Arrays.sort(sorted);
+        var out = new ByteArrayBuilder(sorted.length * 8);
+        var offsets = new int[(sorted.length + BUCKET_SIZE - 1) / BUCKET_SIZE];
+        byte[] previous = NO_BYTES;
+        String previousElement = null;
+        int count = 0;
+        for (String element : sorted) {
+            if (element.equals(previousElement)) {
+                continue;
+            }
+            byte[] encoded = encode(element);
+            if (count % BUCKET_SIZE == 0) {
+                offsets[count / BUCKET_SIZE] = out.size();
+                out.writeVarint(encoded.length);
+                out.write(encoded, 0, encoded.length);
+            } else {
+                int shared = Arrays.mismatch(previous, encoded);
+                shared = shared < 0 ? encoded.length : shared;
+                out.writeVarint(shared);
+                out.writeVarint(encoded.length - shared);
+                out.write(encoded, shared, encoded.length - shared);
+            }
+            previous = encoded;
+            previousElement = element;
+            count++;
+        }
+        this.data = out.toByteArray();
+        this.bucketOffsets = Arrays.copyOf(offsets, (count + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        this.size = count;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long estimatedBytes(ToLongFunction<Object> elementBytes) {
+        // elements are held encoded, rather than as objects
+        return OBJECT_HEADER_BYTES + 2L * ARRAY_HEADER_BYTES + data.length + (long) Integer.BYTES * bucketOffsets.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        byte[] probe = encode((String) o);
+        int bucket = lastBucketWithHeadAtMost(probe);
+        if (bucket < 0) {
+            return false;
+        }
+        // scans the bucket tracking the prefix length the current string shares with the probe - sorted order
+        // tells from each string's shared prefix length alone whether it may still match
+        long varint = readVarint(bucketOffsets[bucket]);
+        int length = (int) varint;
+        int position = (int) (varint >>> 32);
+        int matched = commonPrefixLength(position, length, probe, 0);
+        if (matched == length && matched == probe.length) {
+            return true;
+        }
+        position += length;
+        int entries = Math.min(BUCKET_SIZE, size - bucket * BUCKET_SIZE);
+        for (int i = 1; i < entries; i++) {
+            varint = readVarint(position);
+            int shared = (int) varint;
+            varint = readVarint((int) (varint >>> 32));
+            int suffixLength = (int) varint;
+            position = (int) (varint >>> 32);
+            if (shared < matched) {
+                // differs from the probe where its predecessor matched - so it follows the probe
+                return false;
+            }
+            if (shared == matched) {
+                int suffixMatched = commonPrefixLength(position, suffixLength, probe, matched);
+                int entryLength = shared + suffixLength;
+                matched += suffixMatched;
+                if (matched == entryLength && matched == probe.length) {
+                    return true;
+                }
+                if (matched == probe.length
+                        || matched < entryLength && Byte.toUnsignedInt(data[position + suffixMatched]) > Byte.toUnsignedInt(probe[matched])) {
+                    return false;
+                }
+            }
+            position += suffixLength;
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        var cursor = new Cursor(0);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!cursor.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                cursor.advance();
+                return cursor.decode();
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.DISTINCT
+                | Spliterator.SORTED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Streams the strings starting with the given prefix, in order - seeking the first one by binary search.
+     */
+    Stream<String> withPrefix(String prefix) {
+        byte[] encodedPrefix = encode(prefix);
+        var cursor = new Cursor(Math.max(lastBucketWithHeadAtMost(encodedPrefix), 0));
+        var matches = new Iterator<String>() {
+            private boolean seeked;
+            private boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (!seeked) {
+                    seeked = true;
+                    hasNext = seek();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String next = cursor.decode();
+                seeked = false;
+                return next;
+            }
+
+            private boolean seek() {
+                while (cursor.hasNext()) {
+                    cursor.advance();
+                    int compared = cursor.compareToPrefix(encodedPrefix);
+                    if (compared == 0) {
+                        return true;
+                    }
+                    if (compared > 0) {
+                        return false;
+                    }
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(matches, Spliterator.ORDERED
+                | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * @return the index of the last bucket whose head is less than or equal to the given encoded string, or -1
+     */
+    private int lastBucketWithHeadAtMost(byte[] encoded) {
+        int low = 0;
+        int high = bucketOffsets.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long varint = readVarint(bucketOffsets[middle]);
+            int position = (int) (varint >>> 32);
+            if (Arrays.compareUnsigned(data, position, position + (int) varint, encoded, 0, encoded.length) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private int commonPrefixLength(int position, int length, byte[] probe, int probeOffset) {
+        int mismatch = Arrays.mismatch(data, position, position + length, probe, probeOffset,
+                Math.min(probe.length, probeOffset + length));
+        return mismatch < 0 ? Math.min(length, probe.length - probeOffset) : mismatch;
+    }
+
+    /**
+     * @return the value of the varint at the given position in the low 32 bits, and the position following it in the
+     *         high 32 bits
+     */
+    private long readVarint(int position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (value & 0xFFFFFFFFL) | ((long) position << 32);
+            }
+        }
+    }
+
+    static byte[] encode(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            length += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        byte[] encoded = new byte[length];
+        int position = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                encoded[position++] = (byte) c;
+            } else if (c < 0x800) {
+                encoded[position++] = (byte) (0xC0 | c >> 6);
+                encoded[position++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                encoded[position++] = (byte) (0xE0 | c >> 12);
+                encoded[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                encoded[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return encoded;
+    }
+
+    static String decode(byte[] encoded, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        for (int position = 0; position < length; ) {
+            int b = encoded[position] & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+                position++;
+            } else if (b < 0xE0) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | encoded[position + 1] & 0x3F);
+                position += 2;
+            } else {
+                chars[count++] = (char) ((b & 0x0F) << 12 | (encoded[position + 1] & 0x3F) << 6 | encoded[position + 2] & 0x3F);
+                position += 3;
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Walks the strings in order from the head of a given bucket, rebuilding each one's encoded bytes in place.
+     */
+    private final class Cursor {
+
+        private int index;
+        private int position;
+        private byte[] current = new byte[64];
+        private int length;
+
+        private Cursor(int bucket) {
+            this.index = bucket * BUCKET_SIZE;
+            this.position = bucket < bucketOffsets.length ? bucketOffsets[bucket] : data.length;
+        }
+
+        boolean hasNext() {
+            return index < size;
+        }
+
+        void advance() {
+            int shared = 0;
+            if (index % BUCKET_SIZE != 0) {
+                long varint = readVarint(position);
+                shared = (int) varint;
+                position = (int) (varint >>> 32);
+            }
+            long varint = readVarint(position);
+            int suffixLength = (int) varint;
+            position = (int) (varint >>> 32);
+            length = shared + suffixLength;
+            if (length > current.length) {
+                current = Arrays.copyOf(current, Math.max(length, current.length * 2));
+            }
+            System.arraycopy(data, position, current, shared, suffixLength);
+            position += suffixLength;
+            index++;
+        }
+
+        String decode() {
+            return FrontCodedStringSet.decode(current, length);
+        }
+
+        /**
+         * @return zero if the current string starts with the given prefix, otherwise the sign of their comparison
+         */
+        int compareToPrefix(byte[] prefix) {
+            if (length >= prefix.length && Arrays.equals(current, 0, prefix.length, prefix, 0, prefix.length)) {
+                return 0;
+            }
+            return Arrays.compareUnsigned(current, 0, length, prefix, 0, prefix.length);
+        }
+    }
+
+    private static final class ByteArrayBuilder {
+
+        private byte[] bytes;
+        private int size;
+
+        private ByteArrayBuilder(int initialCapacity) {
+            this.bytes = new byte[Math.max(initialCapacity, 16)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void write(byte[] source, int offset, int length) {
+            ensureCapacity(size + length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void writeByte(int b) {
+            ensureCapacity(size + 1);
+            bytes[size++] = (byte) b;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length + (bytes.length >> 1)));
+            }
+        }
+    }
+
+}
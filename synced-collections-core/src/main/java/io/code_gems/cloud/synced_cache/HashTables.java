@@ -0,0 +1,36 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * Sizing of the open-addressing hash tables backing the indexed snapshots.
+ */
+final class HashTables {
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private HashTables() {
+    }
+
+    /**
+     * @return the power of two capacity of a table holding the given number of entries, keeping the load factor at or
+     * below 0.5 - so probe sequences stay short
+     * @throws IllegalArgumentException if the capacity exceeds the given max
+     */
+    static int tableCapacityFor(int size, int maxCapacity) {
+        return tableCapacityFor(size, 0.5, maxCapacity);
+    }
+
+    /**
+     * @return the power of two capacity of a table holding the given number of entries, keeping the load factor at or
+     * below the given max
+     * @throws IllegalArgumentException if the capacity exceeds the given max
+     */
+    static int tableCapacityFor(int size, double maxLoadFactor, int maxCapacity) {
+        long minCapacity = (long) Math.ceil(Math.max(size, 1) / maxLoadFactor);
+        long capacity = Long.highestOneBit(Math.max(minCapacity, 2) - 1) << 1;
+        if (capacity > maxCapacity) {
+            throw new IllegalArgumentException("Too large to index: " + size + " entries");
+        }
+        return (int) capacity;
+    }
+
+}
@@ -0,0 +1,86 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link SyncedSnapshot} over a single published {@link SyncState}. All reads are delegated to its snapshot.
+ * @param <E> the type of the Collection elements
+ */
+final class ImmutableSyncedSnapshot<E> extends ReadOnlyCollection<E> implements SyncedSnapshot<E> {
+
+    private final Collection<E> snapshot;
+    private final long version;
+    private final Instant syncedAt;
+
+    ImmutableSyncedSnapshot(SyncState<Collection<E>> state) {
+        this.snapshot = state.getSnapshot();
+        // a snapshot releasable off-heap stays readable for as long as the view is reachable
+        ReleaseGuard.pin(this, snapshot);
+        this.version = state.getVersion();
+        this.syncedAt = state.getSyncedAt();
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public Optional<Instant> getSyncedAt() {
+        return Optional.ofNullable(syncedAt);
+    }
+
+    @Override
+    public List<E> lookup(String indexName, Object key) {
+        return SecondaryIndexedCollection.lookup(snapshot, indexName, key);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return snapshot.contains(o);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return snapshot.iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return snapshot.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return snapshot.toArray(a);
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        snapshot.forEach(action);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return snapshot.spliterator();
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return snapshot.stream();
+    }
+
+}
@@ -0,0 +1,362 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.extern.java.Log;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The sync process shared by all synced structures: periodically fetches a new, immutable snapshot
+ * and replaces the current one with it, tracking whether the snapshot is still considered synced.
+ * <p>
+ *      A snapshot is considered out of sync when no sync succeeded at all, or when more than
+ *      {@code maxAllowedNoSyncIntervals} consecutive syncs failed.
+ * </p>
+ * <p>
+ *      The snapshot and its sync status are published together, as a single immutable {@link SyncState} - so readers
+ *      on any thread observe them consistently, with no locking.
+ * </p>
+ * <p>
+ *      Syncs are single-flight: at most one sync runs at a time. On-demand refreshes requested before a sync starts
+ *      share it, while those requested during a sync share a single follow-up sync - so that a refresh always fetches
+ *      after it was requested.
+ * </p>
+ * @param <S> the type of the synced snapshot
+ */
+@Log
+abstract class InMemSyncEngine<S> {
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+    private static final int DEFAULT_MAX_ALLOWED_NO_SYNC_INTERVALS = 4;
+    private static final Duration NO_JITTER = Duration.ZERO;
+    private static final int DEFAULT_PRIORITY = 0;
+
+    private final SyncScheduler syncScheduler;
+    private final Duration interval;
+    private final Duration jitter;
+    private final int priority;
+    private final AtomicInteger noSyncIntervals;
+    private final int maxAllowedNoSyncIntervals;
+    private final SyncListener listener;
+    private final Duration minRefreshGap;
+    private long buildNanos;
+    private final AtomicReference<SyncState<S>> state;
+    private SyncScheduler.Registration registration;
+    private boolean syncRunning;
+    private CompletableFuture<Long> nextRefresh;
+    private long lastSyncStartNanos;
+
+    InMemSyncEngine(SyncOptions syncOptions, S initialSnapshot, boolean initiallySynced) {
+        var options = Optional.ofNullable(syncOptions).orElseGet(() -> SyncOptions.builder().build());
+        this.maxAllowedNoSyncIntervals = Optional.ofNullable(options.getMaxAllowedNoSyncIntervals())
+                                                 .orElse(DEFAULT_MAX_ALLOWED_NO_SYNC_INTERVALS);
+        this.syncScheduler = Optional.ofNullable(options.getSyncScheduler()).orElseGet(SyncScheduler::shared);
+        this.interval = Optional.ofNullable(options.getInterval()).orElse(DEFAULT_INTERVAL);
+        this.jitter = Optional.ofNullable(options.getJitter()).orElse(NO_JITTER);
+        this.priority = Optional.ofNullable(options.getPriority()).orElse(DEFAULT_PRIORITY);
+        this.listener = Optional.ofNullable(options.getListener()).orElse(SyncListener.NO_OP);
+        this.minRefreshGap = Optional.ofNullable(options.getMinRefreshGap()).orElse(Duration.ZERO);
+        this.lastSyncStartNanos = System.nanoTime() - minRefreshGap.toNanos();
+        this.noSyncIntervals = new AtomicInteger(0);
+        this.state = new AtomicReference<>(new SyncState<>(initialSnapshot, initiallySynced, 0, null));
+    }
+
+    public synchronized void startSync() {
+        if (registration == null) {
+            registration = syncScheduler.schedule(this::syncWithSupplier, interval, jitter, priority);
+        }
+    }
+
+    public synchronized void stopSync() {
+        if (registration != null) {
+            registration.cancel();
+            registration = null;
+        }
+    }
+
+    /**
+     * Syncs as soon as possible - or once the min refresh gap since the previous sync elapses - rather than waiting for
+     * the next periodic sync. A refresh already requested but not started yet is shared rather than duplicated,
+     * and a sync already running is followed by a single refresh, shared by all refreshes requested meanwhile.
+     * @return completed with the version of the snapshot in place once the sync succeeded, or exceptionally with
+     *         the sync failure
+     */
+    public CompletableFuture<Long> refreshNow() {
+        CompletableFuture<Long> refresh;
+        synchronized (this) {
+            if (nextRefresh != null) {
+                return nextRefresh.copy();
+            }
+            refresh = nextRefresh = new CompletableFuture<>();
+            if (syncRunning) {
+                // started once the running sync completes
+                return refresh.copy();
+            }
+        }
+        scheduleRefresh(refresh);
+        return refresh.copy();
+    }
+
+    public boolean isSynced() {
+        return state.get().isSynced();
+    }
+
+    /**
+     * Fetches the next snapshot from the backing source. Returning the {@link #currentSnapshot() current snapshot}
+     * keeps it in place. Throwing a {@link PartialSyncException} puts its snapshot in place, yet counts the sync as failed.
+     */
+    abstract S fetchSnapshot() throws Exception;
+
+    /**
+     * Invoked on the sync thread after each successful sync, once the fetched snapshot is in place.
+     * {@code current} is the very same instance as {@code previous} when the sync kept the previous snapshot.
+     */
+    void onSyncSucceeded(S previous, S current) {
+    }
+
+    /**
+     * The number of elements of the given snapshot, as reported to the {@link SyncListener}.
+     */
+    abstract int sizeOf(S snapshot);
+
+    /**
+     * Builds a snapshot out of fetched data, timing it as the build time of the current sync.
+     */
+    <T> T timedBuild(Supplier<T> builder) {
+        long start = System.nanoTime();
+        try {
+            return builder.get();
+        } finally {
+            buildNanos += System.nanoTime() - start;
+        }
+    }
+
+    S currentSnapshot() {
+        return state.get().getSnapshot();
+    }
+
+    SyncState<S> currentState() {
+        return state.get();
+    }
+
+    void verifySynced() {
+        verifiedState();
+    }
+
+    /**
+     * @return the current state, read once
+     * @throws OutOfSyncException if the current snapshot is out of sync
+     */
+    SyncState<S> verifiedState() {
+        var current = state.get();
+        if (!current.isSynced()) {
+            notifyListener(SyncListener::onOutOfSync);
+            throw new OutOfSyncException();
+        }
+        return current;
+    }
+
+    /**
+     * Runs a single sync, on the calling thread - unless a sync is already running, or the min refresh gap since
+     * the previous sync did not elapse yet. A refresh requested but not started yet is served by this sync.
+     */
+    void syncWithSupplier() {
+        CompletableFuture<Long> sync;
+        synchronized (this) {
+            if (syncRunning || System.nanoTime() - lastSyncStartNanos < minRefreshGap.toNanos()) {
+                return;
+            }
+            sync = nextRefresh != null ? nextRefresh : new CompletableFuture<>();
+            nextRefresh = null;
+            markSyncStarted(true);
+        }
+        runSync(sync, this::fetchSnapshot);
+    }
+
+    /**
+     * Runs a single sync on the calling thread, deriving the next snapshot with the given function rather than
+     * fetching it - e.g. out of the current snapshot and changes pushed meanwhile. Not subject to the min refresh gap.
+     * Never serves refreshes, as it fetches nothing.
+     * @return false, with no sync run, if a sync is already running
+     */
+    boolean syncWith(Callable<S> nextSnapshot) {
+        synchronized (this) {
+            if (syncRunning) {
+                return false;
+            }
+            markSyncStarted(false);
+        }
+        runSync(new CompletableFuture<>(), nextSnapshot);
+        return true;
+    }
+
+    /**
+     * Runs the given task once, on the sync scheduler, after the given delay.
+     */
+    void runAfter(Runnable task, Duration delay) {
+        syncScheduler.runOnce(task, delay, priority);
+    }
+
+    private void scheduleRefresh(CompletableFuture<Long> refresh) {
+        Duration delay;
+        synchronized (this) {
+            delay = minRefreshGap.minusNanos(System.nanoTime() - lastSyncStartNanos);
+        }
+        syncScheduler.runOnce(() -> runRefresh(refresh), delay, priority).exceptionally(e -> {
+            // the scheduler was closed before the refresh ran
+            synchronized (this) {
+                if (nextRefresh == refresh) {
+                    nextRefresh = null;
+                }
+            }
+            refresh.completeExceptionally(e);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given refresh - unless already served by a periodic sync, or a sync is running, in which case the refresh
+     * is scheduled again once the running sync completes.
+     */
+    private void runRefresh(CompletableFuture<Long> refresh) {
+        synchronized (this) {
+            if (nextRefresh != refresh || syncRunning) {
+                return;
+            }
+            nextRefresh = null;
+            markSyncStarted(true);
+        }
+        runSync(refresh, this::fetchSnapshot);
+    }
+
+    private void markSyncStarted(boolean fetching) {
+        syncRunning = true;
+        if (fetching) {
+            lastSyncStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Runs a sync, completing the given future with its outcome - also when the sync is aborted by anything thrown,
+     * so that the running sync is always cleared and later syncs still run.
+     */
+    private void runSync(CompletableFuture<Long> sync, Callable<S> nextSnapshot) {
+        Exception failure;
+        try {
+            failure = sync(nextSnapshot);
+        } catch (Throwable e) {
+            syncCompleted();
+            log.severe("sync aborted: " + e);
+            sync.completeExceptionally(e);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return;
+        }
+        // read before the follow-up sync, if any, may publish its own snapshot
+        long version = state.get().getVersion();
+        syncCompleted();
+        if (failure == null) {
+            sync.complete(version);
+        } else {
+            sync.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Clears the running sync, and schedules the refresh requested while it ran - if any.
+     */
+    private void syncCompleted() {
+        CompletableFuture<Long> followUp;
+        synchronized (this) {
+            syncRunning = false;
+            followUp = nextRefresh;
+        }
+        if (followUp != null) {
+            scheduleRefresh(followUp);
+        }
+    }
+
+    /**
+     * @return the sync failure, or null if the sync succeeded
+     */
+    private Exception sync(Callable<S> nextSnapshot) {
+        var previousState = state.get();
+        S previous = previousState.getSnapshot();
+        S snapshot;
+        PartialSyncException partialFailure = null;
+        buildNanos = 0;
+        long start = System.nanoTime();
+        try {
+            snapshot = nextSnapshot.call();
+        } catch (PartialSyncException e) {
+            snapshot = partialSnapshot(e);
+            partialFailure = e;
+        } catch (Exception e) {
+            int consecutiveFailures = checkAllowedNoSyncPeriod();
+            log.warning("sync failed: " + e);
+            notifyListener(l -> l.onSyncFailed(e, consecutiveFailures));
+            return e;
+        } catch (Error e) {
+            // e.g. out of memory while building the snapshot - counted as a failed sync, and rethrown
+            checkAllowedNoSyncPeriod();
+            throw e;
+        }
+        long syncNanos = System.nanoTime() - start;
+        long version = snapshot == previous ? previousState.getVersion() : previousState.getVersion() + 1;
+        if (partialFailure != null) {
+            return publishPartial(previousState, snapshot, version, partialFailure);
+        }
+        state.set(new SyncState<>(snapshot, true, version, Instant.now()));
+        noSyncIntervals.set(0);
+        onSyncSucceeded(previous, snapshot);
+        if (listener != SyncListener.NO_OP) {
+            var stats = new SyncStats(Duration.ofNanos(syncNanos - buildNanos), Duration.ofNanos(buildNanos),
+                    sizeOf(snapshot), snapshot == previous);
+            notifyListener(l -> l.onSyncSucceeded(stats));
+        }
+        return null;
+    }
+
+    /**
+     * Publishes a partially synced snapshot - keeping the sync time of the previous one - and counts the sync as failed.
+     */
+    private Exception publishPartial(SyncState<S> previousState, S snapshot, long version, PartialSyncException failure) {
+        int consecutiveFailures = noSyncIntervals.incrementAndGet();
+        state.set(new SyncState<>(snapshot, previousState.isSynced() && consecutiveFailures <= maxAllowedNoSyncIntervals,
+                version, previousState.getSyncedAt()));
+        onSyncSucceeded(previousState.getSnapshot(), snapshot);
+        log.warning("sync partially failed: " + failure);
+        notifyListener(l -> l.onSyncFailed(failure, consecutiveFailures));
+        return failure;
+    }
+
+    @SuppressWarnings("unchecked")
+    private S partialSnapshot(PartialSyncException failure) {
+        return (S) failure.getSnapshot();
+    }
+
+    private int checkAllowedNoSyncPeriod() {
+        int consecutiveFailures = noSyncIntervals.incrementAndGet();
+        if (consecutiveFailures > maxAllowedNoSyncIntervals) {
+            state.updateAndGet(SyncState::outOfSync);
+        }
+        return consecutiveFailures;
+    }
+
+    private void notifyListener(Consumer<SyncListener> notification) {
+        try {
+            notification.accept(listener);
+        } catch (RuntimeException e) {
+            log.warning("sync listener failed: " + e);
+        }
+    }
+
+}
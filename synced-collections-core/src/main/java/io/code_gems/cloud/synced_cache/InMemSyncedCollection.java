@@ -1,17 +1,13 @@
 package io.code_gems.cloud.synced_cache;
 
+import lombok.Value;
 import lombok.extern.java.Log;
 
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
@@ -24,159 +20,434 @@ import java.util.stream.Stream;
  * @param <E> the type of the Collection elements
  */
 @Log
-class InMemSyncedCollection<E> implements SyncedCollection<E> {
+class InMemSyncedCollection<E> extends InMemSyncEngine<Collection<E>> implements SyncedCollection<E> {
 
-    private static final int NO_DELAY = 0;
-    private static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
-    private static final int DEFAULT_MAX_ALLOWED_NO_SYNC_INTERVALS = 4;
-    private static final Supplier<ScheduledExecutorService> DEFAULT_SCHEDULER_SUPPLIER =
-            () -> Executors.newScheduledThreadPool(1);
+    private static final Duration DEFAULT_FULL_SYNC_INTERVAL = Duration.ofHours(1);
+    private static final Duration DEFAULT_CHANGE_DEBOUNCE = Duration.ofMillis(100);
 
     private final SyncCollectionSupplier<E> syncCollectionSupplier;
-    private final ScheduledExecutorService scheduler;
-    private final Duration interval;
-    private final AtomicInteger noSyncIntervals;
-    private final int maxAllowedNoSyncIntervals;
-    private boolean isSynced;
-    private Collection<E> collection;
-
-    InMemSyncedCollection(SyncCollectionSupplier<E> syncCollectionSupplier, Duration interval,
-                          Collection<E> initialCollection, ScheduledExecutorService scheduler,
-                          Integer maxAllowedNoSyncIntervals) {
+    private final SnapshotFactory<E> snapshotFactory;
+    private final Duration fullSyncInterval;
+    private final LocalSnapshotFile<E> localSnapshot;
+    private final MissOverlay<E> missOverlay;
+    private final SnapshotBudget snapshotBudget;
+    private final FetchPolicy<E> fetchPolicy;
+    private final PartitionedFetch<E> partitionedFetch;
+    private final ChangeFeed<E> changeFeed;
+    private final Duration changeDebounce;
+    private final PushedChanges<E> pushedChanges = new PushedChanges<>();
+    private final ChangeSubscribers<E> changeSubscribers = new ChangeSubscribers<>();
+    private ChangeFeed.Subscription changeSubscription;
+    private volatile Footprint footprint;
+    private long syncedVersion = SyncDelta.NO_VERSION;
+    private long lastFullSyncNanos;
+    private String fetchedVersion;
+    private Fingerprint lastFetchedFingerprint;
+    private Collection<E> lastFetchedSnapshot;
+    private Collection<E> replacedSnapshot;
+
+    InMemSyncedCollection(SyncOptions syncOptions, SyncCollectionSupplier<E> syncCollectionSupplier,
+                          Collection<E> initialCollection, CollectionSyncOptions<E> collectionSyncOptions) {
+        super(syncOptions, snapshotFactoryOf(collectionSyncOptions).create(
+                Optional.ofNullable(initialCollection).orElse(Collections.emptyList())), initialCollection != null);
         if (syncCollectionSupplier == null) {
             throw new IllegalStateException("Instance of SyncCollectionSupplier must be provided");
         }
+        var options = Optional.ofNullable(collectionSyncOptions).orElseGet(() -> CollectionSyncOptions.<E>builder().build());
         this.syncCollectionSupplier = syncCollectionSupplier;
-        this.maxAllowedNoSyncIntervals = Optional.ofNullable(maxAllowedNoSyncIntervals).orElse(DEFAULT_MAX_ALLOWED_NO_SYNC_INTERVALS);
-        this.scheduler = Optional.ofNullable(scheduler).orElseGet(DEFAULT_SCHEDULER_SUPPLIER);
-        this.interval = Optional.ofNullable(interval).orElse(DEFAULT_INTERVAL);
-        this.noSyncIntervals = new AtomicInteger(0);
-        this.collection = Collections.unmodifiableCollection(
-                Optional.ofNullable(initialCollection).orElse(Collections.emptyList()));
-        if (initialCollection != null) {
-            isSynced = true;
+        this.snapshotFactory = snapshotFactoryOf(options);
+        this.fullSyncInterval = Optional.ofNullable(options.getFullSyncInterval()).orElse(DEFAULT_FULL_SYNC_INTERVAL);
+        this.localSnapshot = options.getLocalSnapshot();
+        this.missOverlay = options.getMissOverlay();
+        this.snapshotBudget = Optional.ofNullable(options.getSnapshotBudget()).orElse(SnapshotBudget.UNLIMITED);
+        this.fetchPolicy = Optional.ofNullable(options.getFetchPolicy()).orElseGet(() -> new FetchPolicy<>(null, null, null));
+        this.partitionedFetch = syncCollectionSupplier instanceof PartitionedSyncCollectionSupplier
+                ? new PartitionedFetch<>((PartitionedSyncCollectionSupplier<E>) syncCollectionSupplier,
+                                         this.fetchPolicy.getTimeout())
+                : null;
+        this.changeFeed = options.getChangeFeed();
+        this.changeDebounce = Optional.ofNullable(options.getChangeDebounce()).orElse(DEFAULT_CHANGE_DEBOUNCE);
+    }
+
+    @Override
+    public synchronized void startSync() {
+        super.startSync();
+        if (changeFeed != null && changeSubscription == null) {
+            changeSubscription = changeFeed.subscribe(this::onPushedChanges);
+        }
+    }
+
+    @Override
+    public synchronized void stopSync() {
+        super.stopSync();
+        if (changeSubscription != null) {
+            changeSubscription.close();
+            changeSubscription = null;
         }
+        retireReplaced(null);
     }
 
-    public void startSync() {
-        scheduler.scheduleWithFixedDelay(this::syncWithSupplier, NO_DELAY, interval.toMillis(), TimeUnit.MILLISECONDS);
+    @Override
+    public SyncedSnapshot<E> snapshot() {
+        return new ImmutableSyncedSnapshot<>(currentState());
     }
 
-    public boolean isSynced() {
-        return isSynced;
+    @Override
+    public List<E> lookup(String indexName, Object key) {
+        return SecondaryIndexedCollection.lookup(currentSnapshot(), indexName, key);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        var snapshot = currentSnapshot();
+        var current = footprint;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Footprint(snapshot, snapshotBudget.estimatedBytesOf(snapshot));
+            footprint = current;
+        }
+        return current.bytes;
+    }
+
+    @Override
+    public ChangeFeed.Subscription subscribe(Consumer<SyncDelta<E>> subscriber) {
+        return changeSubscribers.subscribe(subscriber);
     }
 
     public int size() {
-        return collection.size();
+        return currentSnapshot().size();
     }
 
     public boolean isEmpty() {
-        return collection.isEmpty();
+        return currentSnapshot().isEmpty();
     }
 
     public boolean contains(Object o) {
-        return collection.contains(o);
+        return currentSnapshot().contains(o) || missOverlay != null && missOverlay.contains(o);
     }
 
     public Iterator<E> iterator() {
-        return collection.iterator();
+        return currentSnapshot().iterator();
     }
 
     public Object[] toArray() {
-        return collection.toArray();
+        return currentSnapshot().toArray();
     }
 
     public <T> T[] toArray(T[] a) {
-        return collection.toArray(a);
+        return currentSnapshot().toArray(a);
     }
 
     public boolean add(E e) {
-        return collection.add(e);
+        return currentSnapshot().add(e);
     }
 
     public boolean remove(Object o) {
-        return collection.remove(o);
+        return currentSnapshot().remove(o);
     }
 
     public boolean containsAll(Collection<?> c) {
-        return collection.containsAll(c);
+        if (missOverlay == null) {
+            return currentSnapshot().containsAll(c);
+        }
+        return c.stream().allMatch(this::contains);
     }
 
     public boolean addAll(Collection<? extends E> c) {
-        return collection.addAll(c);
+        return currentSnapshot().addAll(c);
     }
 
     public boolean removeAll(Collection<?> c) {
-        return collection.removeAll(c);
+        return currentSnapshot().removeAll(c);
     }
 
     public boolean retainAll(Collection<?> c) {
-        return collection.retainAll(c);
+        return currentSnapshot().retainAll(c);
     }
 
     public void clear() {
-        collection.clear();
+        currentSnapshot().clear();
     }
 
     @Override
     public <T> T[] toArray(IntFunction<T[]> generator) {
-        return collection.toArray(generator);
+        return currentSnapshot().toArray(generator);
     }
 
     @Override
     public boolean removeIf(Predicate<? super E> filter) {
-        return collection.removeIf(filter);
+        return currentSnapshot().removeIf(filter);
     }
 
     @Override
     public Spliterator<E> spliterator() {
-        return collection.spliterator();
+        return currentSnapshot().spliterator();
     }
 
     @Override
     public Stream<E> stream() {
-        return collection.stream();
+        return currentSnapshot().stream();
     }
 
     @Override
     public Stream<E> parallelStream() {
-        return collection.parallelStream();
+        return currentSnapshot().parallelStream();
     }
 
     @Override
     public void forEach(Consumer<? super E> action) {
-        collection.forEach(action);
+        currentSnapshot().forEach(action);
     }
 
     @Override
     public int hashCode() {
-        return collection.hashCode();
+        return currentSnapshot().hashCode();
     }
 
     @Override
     public boolean equals(Object obj) {
-        return collection.equals(obj);
+        return currentSnapshot().equals(obj);
     }
 
     @Override
     public String toString() {
-        return collection.toString();
+        return currentSnapshot().toString();
+    }
+
+    @Override
+    Collection<E> fetchSnapshot() throws Exception {
+        String version = null;
+        if (syncCollectionSupplier instanceof ConditionalSyncCollectionSupplier) {
+            version = ((ConditionalSyncCollectionSupplier<E>) syncCollectionSupplier).currentVersion();
+            if (version != null && version.equals(fetchedVersion)) {
+                return currentSnapshot();
+            }
+        }
+        var next = fetchChangedSnapshot();
+        fetchedVersion = version;
+        return next;
+    }
+
+    @Override
+    int sizeOf(Collection<E> snapshot) {
+        return snapshot.size();
     }
 
-    private void syncWithSupplier() {
+    @Override
+    void onSyncSucceeded(Collection<E> previous, Collection<E> current) {
+        if (current != previous) {
+            if (missOverlay != null) {
+                missOverlay.clear();
+            }
+            changeSubscribers.publish(previous, current, currentState().getVersion());
+            retireReplaced(previous);
+        }
+        if (localSnapshot == null) {
+            return;
+        }
         try {
-            this.collection = Collections.unmodifiableCollection(syncCollectionSupplier.get());
-            isSynced = true;
-            noSyncIntervals.set(0);
+            if (current == previous) {
+                localSnapshot.touch();
+            } else {
+                localSnapshot.save(current);
+            }
         } catch (Exception e) {
-            checkAllowedNoSyncPeriod();
-            log.warning("sync failed: " + e);
+            log.warning("local snapshot save failed: " + e);
         }
     }
 
-    private void checkAllowedNoSyncPeriod() {
-        if (noSyncIntervals.incrementAndGet() > maxAllowedNoSyncIntervals) {
-            isSynced = false;
+    /**
+     * Retires the snapshot replaced by the previous sync, if any - a whole sync after it was replaced, sparing the
+     * reads that fetched it just before a refusal - and keeps the given one, just replaced, until the next.
+     */
+    private synchronized void retireReplaced(Collection<E> replaced) {
+        ReleaseGuard.retire(replacedSnapshot);
+        replacedSnapshot = replaced;
+    }
+
+    private void onPushedChanges(SyncDelta<E> changes) {
+        if (pushedChanges.add(changes)) {
+            runAfter(this::applyPushedChanges, changeDebounce);
+        }
+    }
+
+    /**
+     * Applies the current batch of pushed changes to a new snapshot - unless there is no synced snapshot to apply them
+     * to yet, or a sync is in flight, in which case the batch is retried once another debounce window elapses.
+     * A batch failing to apply - e.g. rejected by the snapshot budget - is retried along with the next one.
+     */
+    private void applyPushedChanges() {
+        if (!isSubscribed()) {
+            return;
+        }
+        if (currentState().getSyncedAt() == null || !syncWith(this::withPushedChanges)) {
+            runAfter(this::applyPushedChanges, changeDebounce);
+        }
+    }
+
+    private synchronized boolean isSubscribed() {
+        return changeSubscription != null;
+    }
+
+    private Collection<E> withPushedChanges() {
+        var batch = pushedChanges.drain();
+        if (batch.isEmpty()) {
+            return currentSnapshot();
+        }
+        try {
+            return withinBudget(timedBuild(() -> withDeltas(currentSnapshot(), batch)));
+        } catch (Throwable e) {
+            // the batch is kept rather than lost, until a snapshot it applies to is accepted
+            pushedChanges.restore(batch);
+            throw e;
+        }
+    }
+
+    private Collection<E> fetchChangedSnapshot() throws Exception {
+        if (syncCollectionSupplier instanceof IncrementalSyncCollectionSupplier) {
+            return fetchChanges((IncrementalSyncCollectionSupplier<E>) syncCollectionSupplier);
+        }
+        if (partitionedFetch != null) {
+            return fetchPartitions();
+        }
+        if (syncCollectionSupplier instanceof StreamingSyncCollectionSupplier) {
+            return fetchStream((StreamingSyncCollectionSupplier<E>) syncCollectionSupplier);
+        }
+        var fetched = fetchPolicy.fetch(syncCollectionSupplier);
+        snapshotBudget.verifyFetched(fetched.size());
+        // a full fetch with the fingerprint of the one the current snapshot was built from keeps it, sparing its
+        // rebuild - up to the full sync interval, bounding how long a fingerprint collision may go unnoticed
+        var fingerprint = Fingerprint.of(fetched);
+        long now = System.nanoTime();
+        var current = currentSnapshot();
+        if (current == lastFetchedSnapshot && fingerprint.equals(lastFetchedFingerprint)
+                && now - lastFullSyncNanos < fullSyncInterval.toNanos()) {
+            return current;
+        }
+        var next = withinBudget(timedBuild(() -> snapshotFactory.create(fetched)));
+        lastFetchedFingerprint = fingerprint;
+        lastFetchedSnapshot = next;
+        lastFullSyncNanos = now;
+        return next;
+    }
+
+    private Collection<E> fetchStream(StreamingSyncCollectionSupplier<E> streamingSupplier) throws Exception {
+        // indexed as fetched, so not timed as a build - the whole of it counts as fetch time
+        try (var elements = streamingSupplier.stream()) {
+            var fetched = snapshotBudget.verifyFetched(elements.iterator());
+            return withinBudget(snapshotFactory.create(fetched, streamingSupplier.sizeHint()));
+        } catch (SnapshotRejectedException e) {
+            throw e;
+        } catch (Exception e) {
+            var fallbackFetched = fetchPolicy.fetchFallbacks(e);
+            snapshotBudget.verifyFetched(fallbackFetched.size());
+            return withinBudget(timedBuild(() -> snapshotFactory.create(fallbackFetched)));
+        }
+    }
+
+    private Collection<E> fetchPartitions() throws Exception {
+        PartitionedFetch.Fetched<E> fetched;
+        try {
+            fetched = partitionedFetch.fetch();
+        } catch (Exception e) {
+            var fallbackFetched = fetchPolicy.fetchFallbacks(e);
+            snapshotBudget.verifyFetched(fallbackFetched.size());
+            return withinBudget(timedBuild(() -> snapshotFactory.create(fallbackFetched)));
+        }
+        snapshotBudget.verifyFetched(fetched.elements.size());
+        var next = withinBudget(timedBuild(() -> snapshotFactory.create(fetched.elements)));
+        partitionedFetch.accepted(fetched);
+        if (fetched.failure != null) {
+            throw new PartialSyncException(fetched.failedPartitions + " partitions failed to fetch, keeping their previous elements",
+                    fetched.failure, next);
+        }
+        return next;
+    }
+
+    private Collection<E> fetchChanges(IncrementalSyncCollectionSupplier<E> incrementalSupplier) {
+        long now = System.nanoTime();
+        boolean fullSyncDue = syncedVersion == SyncDelta.NO_VERSION
+                || now - lastFullSyncNanos >= fullSyncInterval.toNanos();
+        SyncDelta<E> delta = incrementalSupplier.getChangesSince(fullSyncDue ? SyncDelta.NO_VERSION : syncedVersion);
+        boolean fullSync = fullSyncDue || delta.isFull();
+        Collection<E> next;
+        if (fullSync) {
+            snapshotBudget.verifyFetched(delta.getAdded().size());
+            next = timedBuild(() -> snapshotFactory.create(delta.getAdded()));
+        } else if (delta.isEmpty()) {
+            next = currentSnapshot();
+        } else {
+            next = timedBuild(() -> withDeltas(currentSnapshot(), List.of(delta)));
+        }
+        withinBudget(next);
+        if (fullSync) {
+            lastFullSyncNanos = now;
+        }
+        syncedVersion = delta.getVersion();
+        return next;
+    }
+
+    /**
+     * @return the given snapshot, if within budget
+     * @throws SnapshotRejectedException if the given snapshot is over budget
+     */
+    private Collection<E> withinBudget(Collection<E> next) {
+        var current = currentSnapshot();
+        if (next != current) {
+            long bytes = snapshotBudget.verify(current, next);
+            if (bytes >= 0) {
+                footprint = new Footprint(next, bytes);
+            }
+        }
+        return next;
+    }
+
+    private static <E> SnapshotFactory<E> snapshotFactoryOf(CollectionSyncOptions<E> options) {
+        return Optional.ofNullable(options)
+                       .map(CollectionSyncOptions::getSnapshotFactory)
+                       .orElseGet(SnapshotFactory::unmodifiable);
+    }
+
+    /**
+     * @return a snapshot built straight out of the given one with the given deltas applied
+     */
+    private Collection<E> withDeltas(Collection<E> current, List<SyncDelta<E>> deltas) {
+        var next = new AppliedDeltas<>(current, deltas);
+        return snapshotFactory.create(next, next.sizeHint());
+    }
+
+    /**
+     * The size of a fetched collection, along with a 128-bit, order-sensitive hash of its elements.
+     */
+    @Value
+    private static class Fingerprint {
+
+        int size;
+        long hash1;
+        long hash2;
+
+        private static Fingerprint of(Collection<?> elements) {
+            long hash1 = 0;
+            long hash2 = 0;
+            for (Object element : elements) {
+                long elementHash = Objects.hashCode(element) * 0x9E3779B97F4A7C15L;
+                hash1 = (hash1 ^ elementHash) * 0xBF58476D1CE4E5B9L;
+                hash2 = Long.rotateLeft(hash2, 31) + (elementHash ^ (elementHash >>> 29));
+            }
+            return new Fingerprint(elements.size(), hash1, hash2);
+        }
+    }
+
+    /**
+     * The estimated bytes of a snapshot, kept along with the snapshot they were estimated for.
+     */
+    private static final class Footprint {
+
+        private final Collection<?> snapshot;
+        private final long bytes;
+
+        private Footprint(Collection<?> snapshot, long bytes) {
+            this.snapshot = snapshot;
+            this.bytes = bytes;
         }
     }
 
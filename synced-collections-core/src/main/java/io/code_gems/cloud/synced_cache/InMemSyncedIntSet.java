@@ -0,0 +1,44 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A <b>read-only</b> set of {@code int} values, synced with a backing one.
+ */
+class InMemSyncedIntSet extends InMemSyncedPrimitiveSet<IntHashSnapshot> implements SyncedIntSet {
+
+    private final SyncIntSetSupplier syncIntSetSupplier;
+
+    InMemSyncedIntSet(SyncOptions syncOptions, SyncIntSetSupplier syncIntSetSupplier, int[] initialValues) {
+        super(syncOptions, initialValues == null ? IntHashSnapshot.EMPTY : new IntHashSnapshot(initialValues),
+                initialValues != null);
+        if (syncIntSetSupplier == null) {
+            throw new IllegalStateException("Instance of SyncIntSetSupplier must be provided");
+        }
+        this.syncIntSetSupplier = syncIntSetSupplier;
+    }
+
+    public boolean contains(int value) {
+        return currentSnapshot().contains(value);
+    }
+
+    public int[] toArray() {
+        return currentSnapshot().toArray();
+    }
+
+    public void forEach(IntConsumer action) {
+        currentSnapshot().forEach(action);
+    }
+
+    public IntStream stream() {
+        return currentSnapshot().stream();
+    }
+
+    @Override
+    IntHashSnapshot fetchSnapshot() {
+        var fetched = syncIntSetSupplier.get();
+        return timedBuild(() -> new IntHashSnapshot(fetched));
+    }
+
+}
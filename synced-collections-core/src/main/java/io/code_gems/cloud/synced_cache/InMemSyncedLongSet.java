@@ -0,0 +1,44 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A <b>read-only</b> set of {@code long} values, synced with a backing one.
+ */
+class InMemSyncedLongSet extends InMemSyncedPrimitiveSet<LongHashSnapshot> implements SyncedLongSet {
+
+    private final SyncLongSetSupplier syncLongSetSupplier;
+
+    InMemSyncedLongSet(SyncOptions syncOptions, SyncLongSetSupplier syncLongSetSupplier, long[] initialValues) {
+        super(syncOptions, initialValues == null ? LongHashSnapshot.EMPTY : new LongHashSnapshot(initialValues),
+                initialValues != null);
+        if (syncLongSetSupplier == null) {
+            throw new IllegalStateException("Instance of SyncLongSetSupplier must be provided");
+        }
+        this.syncLongSetSupplier = syncLongSetSupplier;
+    }
+
+    public boolean contains(long value) {
+        return currentSnapshot().contains(value);
+    }
+
+    public long[] toArray() {
+        return currentSnapshot().toArray();
+    }
+
+    public void forEach(LongConsumer action) {
+        currentSnapshot().forEach(action);
+    }
+
+    public LongStream stream() {
+        return currentSnapshot().stream();
+    }
+
+    @Override
+    LongHashSnapshot fetchSnapshot() {
+        var fetched = syncLongSetSupplier.get();
+        return timedBuild(() -> new LongHashSnapshot(fetched));
+    }
+
+}
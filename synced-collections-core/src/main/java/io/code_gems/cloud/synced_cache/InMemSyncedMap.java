@@ -0,0 +1,113 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * A <b>read-only</b> Map, synced with a backing one.
+ * Mainly intended as a fast, in-memory 'cache' layer to a remote, persistent and centralized key-value collection.
+ * <p>
+ *      Each sync copies the supplied map into an immutable hash map, replacing the previous one as a whole -
+ *      so {@link #get(Object)} and {@link #containsKey(Object)} are allocation-free lookups.
+ * </p>
+ * @param <K> the type of the Map keys
+ * @param <V> the type of the Map values
+ */
+class InMemSyncedMap<K, V> extends InMemSyncEngine<Map<K, V>> implements SyncedMap<K, V> {
+
+    private final SyncMapSupplier<K, V> syncMapSupplier;
+
+    InMemSyncedMap(SyncOptions syncOptions, SyncMapSupplier<K, V> syncMapSupplier, Map<K, V> initialMap) {
+        super(syncOptions, Map.copyOf(Optional.ofNullable(initialMap).orElse(Collections.emptyMap())),
+                initialMap != null);
+        if (syncMapSupplier == null) {
+            throw new IllegalStateException("Instance of SyncMapSupplier must be provided");
+        }
+        this.syncMapSupplier = syncMapSupplier;
+    }
+
+    public int size() {
+        return currentSnapshot().size();
+    }
+
+    public boolean isEmpty() {
+        return currentSnapshot().isEmpty();
+    }
+
+    public boolean containsKey(Object key) {
+        return currentSnapshot().containsKey(key);
+    }
+
+    public boolean containsValue(Object value) {
+        return currentSnapshot().containsValue(value);
+    }
+
+    public V get(Object key) {
+        return currentSnapshot().get(key);
+    }
+
+    public V put(K key, V value) {
+        return currentSnapshot().put(key, value);
+    }
+
+    public V remove(Object key) {
+        return currentSnapshot().remove(key);
+    }
+
+    public void putAll(Map<? extends K, ? extends V> m) {
+        currentSnapshot().putAll(m);
+    }
+
+    public void clear() {
+        currentSnapshot().clear();
+    }
+
+    public Set<K> keySet() {
+        return currentSnapshot().keySet();
+    }
+
+    public Collection<V> values() {
+        return currentSnapshot().values();
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        return currentSnapshot().entrySet();
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return currentSnapshot().getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        currentSnapshot().forEach(action);
+    }
+
+    @Override
+    public int hashCode() {
+        return currentSnapshot().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return currentSnapshot().equals(obj);
+    }
+
+    @Override
+    public String toString() {
+        return currentSnapshot().toString();
+    }
+
+    @Override
+    Map<K, V> fetchSnapshot() {
+        var fetched = syncMapSupplier.get();
+        return timedBuild(() -> Map.copyOf(fetched));
+    }
+
+    @Override
+    int sizeOf(Map<K, V> snapshot) {
+        return snapshot.size();
+    }
+
+}
@@ -0,0 +1,228 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A <b>read-only</b> NavigableSet, synced with a backing collection.
+ * <p>
+ *      Each sync sorts the supplied elements into an immutable {@link SortedArraySet}, replacing the previous one as
+ *      a whole.
+ * </p>
+ * @param <E> the type of the Set elements
+ */
+class InMemSyncedNavigableSet<E> extends InMemSyncEngine<SortedArraySet<E>> implements SyncedNavigableSet<E> {
+
+    private final SyncCollectionSupplier<E> syncCollectionSupplier;
+    private final Comparator<? super E> comparator;
+
+    InMemSyncedNavigableSet(SyncOptions syncOptions, SyncCollectionSupplier<E> syncCollectionSupplier,
+                            Comparator<? super E> comparator, Collection<E> initialElements) {
+        super(syncOptions, new SortedArraySet<>(Optional.ofNullable(initialElements).orElse(Collections.emptyList()),
+                comparator), initialElements != null);
+        if (syncCollectionSupplier == null) {
+            throw new IllegalStateException("Instance of SyncCollectionSupplier must be provided");
+        }
+        this.syncCollectionSupplier = syncCollectionSupplier;
+        this.comparator = comparator;
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return currentSnapshot().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return currentSnapshot().isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return currentSnapshot().contains(o);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        return currentSnapshot().containsAll(c);
+    }
+
+    @Override
+    public E lower(E e) {
+        return currentSnapshot().lower(e);
+    }
+
+    @Override
+    public E floor(E e) {
+        return currentSnapshot().floor(e);
+    }
+
+    @Override
+    public E ceiling(E e) {
+        return currentSnapshot().ceiling(e);
+    }
+
+    @Override
+    public E higher(E e) {
+        return currentSnapshot().higher(e);
+    }
+
+    @Override
+    public E first() {
+        return currentSnapshot().first();
+    }
+
+    @Override
+    public E last() {
+        return currentSnapshot().last();
+    }
+
+    @Override
+    public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        return currentSnapshot().subSet(fromElement, fromInclusive, toElement, toInclusive);
+    }
+
+    @Override
+    public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+        return currentSnapshot().headSet(toElement, inclusive);
+    }
+
+    @Override
+    public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+        return currentSnapshot().tailSet(fromElement, inclusive);
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        return currentSnapshot().subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        return currentSnapshot().headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        return currentSnapshot().tailSet(fromElement);
+    }
+
+    @Override
+    public NavigableSet<E> descendingSet() {
+        return currentSnapshot().descendingSet();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return currentSnapshot().iterator();
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return currentSnapshot().descendingIterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return currentSnapshot().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return currentSnapshot().toArray(a);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return currentSnapshot().spliterator();
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return currentSnapshot().stream();
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        currentSnapshot().forEach(action);
+    }
+
+    @Override
+    public E pollFirst() {
+        return currentSnapshot().pollFirst();
+    }
+
+    @Override
+    public E pollLast() {
+        return currentSnapshot().pollLast();
+    }
+
+    @Override
+    public boolean add(E e) {
+        return currentSnapshot().add(e);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return currentSnapshot().remove(o);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return currentSnapshot().addAll(c);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return currentSnapshot().removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return currentSnapshot().retainAll(c);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        return currentSnapshot().removeIf(filter);
+    }
+
+    @Override
+    public void clear() {
+        currentSnapshot().clear();
+    }
+
+    @Override
+    public int hashCode() {
+        return currentSnapshot().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return currentSnapshot().equals(obj);
+    }
+
+    @Override
+    public String toString() {
+        return currentSnapshot().toString();
+    }
+
+    @Override
+    SortedArraySet<E> fetchSnapshot() {
+        var fetched = syncCollectionSupplier.get();
+        return timedBuild(() -> new SortedArraySet<>(fetched, comparator));
+    }
+
+    @Override
+    int sizeOf(SortedArraySet<E> snapshot) {
+        return snapshot.size();
+    }
+
+}
@@ -0,0 +1,30 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * A <b>read-only</b> set of primitive values, synced with a backing one.
+ * <p>
+ *      Each sync copies the supplied values into an immutable, primitive open-addressing hash table,
+ *      replacing the previous one as a whole.
+ * </p>
+ * @param <S> the type of the hash table snapshots
+ */
+abstract class InMemSyncedPrimitiveSet<S extends PrimitiveHashSnapshot> extends InMemSyncEngine<S> {
+
+    InMemSyncedPrimitiveSet(SyncOptions syncOptions, S initialSnapshot, boolean initiallySynced) {
+        super(syncOptions, initialSnapshot, initiallySynced);
+    }
+
+    public int size() {
+        return currentSnapshot().size();
+    }
+
+    public boolean isEmpty() {
+        return currentSnapshot().size() == 0;
+    }
+
+    @Override
+    int sizeOf(S snapshot) {
+        return snapshot.size();
+    }
+
+}
@@ -0,0 +1,34 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ChangeFeed} delivering the changes published to it, on the publishing thread - e.g. bridging an in-process
+ * event bus, or standing in for a remote feed in tests.
+ * @param <E> the type of the Collection elements
+ */
+public class InMemoryChangeFeed<E> implements ChangeFeed<E> {
+
+    private final List<Consumer<SyncDelta<E>>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Subscription subscribe(Consumer<SyncDelta<E>> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    public void publish(SyncDelta<E> changes) {
+        subscribers.forEach(subscriber -> subscriber.accept(changes));
+    }
+
+    public void add(E element) {
+        publish(SyncDelta.of(List.of(element), List.of(), SyncDelta.NO_VERSION));
+    }
+
+    public void remove(E element) {
+        publish(SyncDelta.of(List.of(), List.of(element), SyncDelta.NO_VERSION));
+    }
+
+}
@@ -0,0 +1,28 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Collection;
+
+/**
+ * A {@link SyncCollectionSupplier} able to supply only the changes of the backing collection since a given version
+ * (e.g. a high-watermark or a change sequence number), sparing a full reload on every sync interval.
+ * <p>
+ *      The synced collection holds the version of the last applied delta, and asks for the changes since it.
+ *      When asked for changes since {@link SyncDelta#NO_VERSION} - on the first sync, and periodically to guard against
+ *      drift - the whole backing collection must be returned. A full delta may also be returned at any other time,
+ *      e.g. when the given version is too old to compute the changes since.
+ * </p>
+ * <p>
+ *      Deltas are applied with set semantics: an added element already present in the synced snapshot is kept once.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+public interface IncrementalSyncCollectionSupplier<E> extends SyncCollectionSupplier<E> {
+
+    SyncDelta<E> getChangesSince(long version);
+
+    @Override
+    default Collection<E> get() {
+        return getChangesSince(SyncDelta.NO_VERSION).getAdded();
+    }
+
+}
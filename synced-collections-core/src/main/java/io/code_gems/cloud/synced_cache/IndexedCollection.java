@@ -0,0 +1,296 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable Collection backed by an open-addressing hash table with precomputed hashes.
+ * <p>
+ *      Elements are kept in an array, in the iteration order of the source collection (duplicates included),
+ *      while the table holds the array positions of the distinct elements - so {@link #contains(Object)} is
+ *      constant-time and iteration is a plain array scan.
+ * </p>
+ * <p>
+ *      The table may be split into equally sized segments, by the top bits of the hashes, so that large collections
+ *      can be indexed in parallel - one segment per task.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+final class IndexedCollection<E> extends ReadOnlyCollection<E> implements MemoryEstimated {
+
+    private static final int EMPTY_SLOT = 0;
+    private static final int SINGLE_SEGMENT_SHIFT = Integer.SIZE;
+    private static final int MIN_PARALLEL_SIZE = 1 << 16;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final Object[] elements;
+    private final int[] slots;
+    private final int[] slotHashes;
+    private final int mask;
+    private final int segmentShift;
+
+    IndexedCollection(Collection<? extends E> source) {
+        this(source.iterator(), source.size());
+    }
+
+    /**
+     * Indexes elements as they are consumed from the given iterator, growing the table as needed -
+     * a non-negative size hint presizes it.
+     */
+    IndexedCollection(Iterator<? extends E> source, int sizeHint) {
+        var table = new TableBuilder(sizeHint);
+        source.forEachRemaining(table::add);
+        this.elements = table.size == table.elements.length ? table.elements : Arrays.copyOf(table.elements, table.size);
+        this.slots = table.slots;
+        this.slotHashes = table.slotHashes;
+        this.mask = table.slots.length - 1;
+        this.segmentShift = SINGLE_SEGMENT_SHIFT;
+    }
+
+    private IndexedCollection(Object[] elements, int[] slots, int[] slotHashes, int segmentCapacity, int segmentShift) {
+        this.elements = elements;
+        this.slots = slots;
+        this.slotHashes = slotHashes;
+        this.mask = segmentCapacity - 1;
+        this.segmentShift = segmentShift;
+    }
+
+    /**
+     * Indexes the given collection on the given pool: hashing, partitioning by segment and building each segment's
+     * table run as parallel tasks. Small collections are indexed on the calling thread.
+     */
+    static <E> IndexedCollection<E> inParallel(Collection<? extends E> source, ForkJoinPool pool) {
+        if (source.size() < MIN_PARALLEL_SIZE) {
+            return new IndexedCollection<>(source);
+        }
+        Object[] elements = source.toArray();
+        int size = elements.length;
+        int tasks = Integer.highestOneBit(Math.max(pool.getParallelism() * TASKS_PER_THREAD - 1, 1)) << 1;
+        int segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(tasks);
+        int chunkSize = (size + tasks - 1) / tasks;
+
+        // hashes all elements, counting each chunk's elements per segment
+        int[] hashes = new int[size];
+        int[][] chunkSegmentCounts = new int[tasks][tasks];
+        runInParallel(pool, tasks, chunk -> {
+            int[] counts = chunkSegmentCounts[chunk];
+            for (int i = chunk * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+                hashes[i] = hash(elements[i]);
+                counts[hashes[i] >>> segmentShift]++;
+            }
+        });
+
+        // orders the element positions by segment - keeping their source order within each segment
+        int[] segmentStarts = new int[tasks + 1];
+        int[][] chunkSegmentOffsets = new int[tasks][tasks];
+        int maxSegmentSize = 0;
+        for (int segment = 0, offset = 0; segment < tasks; segment++) {
+            segmentStarts[segment] = offset;
+            for (int chunk = 0; chunk < tasks; chunk++) {
+                chunkSegmentOffsets[chunk][segment] = offset;
+                offset += chunkSegmentCounts[chunk][segment];
+            }
+            segmentStarts[segment + 1] = offset;
+            maxSegmentSize = Math.max(maxSegmentSize, offset - segmentStarts[segment]);
+        }
+        int[] positionsBySegment = new int[size];
+        runInParallel(pool, tasks, chunk -> {
+            int[] offsets = chunkSegmentOffsets[chunk];
+            for (int i = chunk * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+                positionsBySegment[offsets[hashes[i] >>> segmentShift]++] = i;
+            }
+        });
+
+        int segmentCapacity = HashTables.tableCapacityFor(maxSegmentSize, HashTables.MAX_CAPACITY);
+        if ((long) segmentCapacity * tasks > HashTables.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Collection too large to index: " + size);
+        }
+        int[] slots = new int[segmentCapacity * tasks];
+        int[] slotHashes = new int[slots.length];
+        int segmentMask = segmentCapacity - 1;
+        runInParallel(pool, tasks, segment -> {
+            int base = segment * segmentCapacity;
+            for (int k = segmentStarts[segment]; k < segmentStarts[segment + 1]; k++) {
+                int position = positionsBySegment[k];
+                int hash = hashes[position];
+                for (int i = hash & segmentMask; ; i = (i + 1) & segmentMask) {
+                    int slot = slots[base + i];
+                    if (slot == EMPTY_SLOT) {
+                        slots[base + i] = position + 1;
+                        slotHashes[base + i] = hash;
+                        break;
+                    }
+                    if (slotHashes[base + i] == hash && Objects.equals(elements[slot - 1], elements[position])) {
+                        break;
+                    }
+                }
+            }
+        });
+        return new IndexedCollection<>(elements, slots, slotHashes, segmentCapacity, segmentShift);
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elements.length == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        int hash = hash(o);
+        // a long shift, so that the single segment shift of 32 yields segment 0
+        int base = (int) ((hash & 0xFFFFFFFFL) >>> segmentShift) * (mask + 1);
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int slot = slots[base + i];
+            if (slot == EMPTY_SLOT) {
+                return false;
+            }
+            if (slotHashes[base + i] == hash && Objects.equals(elements[slot - 1], o)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public long estimatedBytes(ToLongFunction<Object> elementBytes) {
+        return OBJECT_HEADER_BYTES + 3L * ARRAY_HEADER_BYTES + 2L * Integer.BYTES * slots.length
+                + MemoryEstimated.referencesAndElementsBytes(Arrays.asList(elements), elementBytes);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < elements.length;
+            }
+
+            @Override
+            public E next() {
+                if (next >= elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return elementAt(next++);
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, elements.length);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < elements.length) {
+            return (T[]) Arrays.copyOf(elements, elements.length, a.getClass());
+        }
+        System.arraycopy(elements, 0, a, 0, elements.length);
+        if (a.length > elements.length) {
+            a[elements.length] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for (int i = 0; i < elements.length; i++) {
+            action.accept(elementAt(i));
+        }
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(elements, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int index) {
+        return (E) elements[index];
+    }
+
+    private static int hash(Object o) {
+        int h = Objects.hashCode(o) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static void runInParallel(ForkJoinPool pool, int tasks, IntConsumer task) {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(IntStream.range(0, tasks)
+                .mapToObj(t -> ForkJoinTask.adapt(() -> task.accept(t)))
+                .collect(Collectors.toList()))));
+    }
+
+    private static final class TableBuilder {
+
+        private Object[] elements;
+        private int[] slots;
+        private int[] slotHashes;
+        private int size;
+        private int distinct;
+
+        private TableBuilder(int sizeHint) {
+            int initialSize = Math.max(sizeHint, 0);
+            this.elements = new Object[initialSize];
+            this.slots = new int[HashTables.tableCapacityFor(initialSize, HashTables.MAX_CAPACITY)];
+            this.slotHashes = new int[slots.length];
+        }
+
+        private void add(Object element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(16, size + (size >> 1)));
+            }
+            elements[size] = element;
+            int hash = hash(element);
+            int mask = slots.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                int slot = slots[i];
+                if (slot == EMPTY_SLOT) {
+                    slots[i] = size + 1;
+                    slotHashes[i] = hash;
+                    distinct++;
+                    break;
+                }
+                if (slotHashes[i] == hash && Objects.equals(elements[slot - 1], element)) {
+                    break;
+                }
+            }
+            size++;
+            if (distinct * 2 > slots.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            int[] oldSlots = slots;
+            int[] oldHashes = slotHashes;
+            slots = new int[HashTables.tableCapacityFor(distinct, HashTables.MAX_CAPACITY)];
+            slotHashes = new int[slots.length];
+            int mask = slots.length - 1;
+            for (int j = 0; j < oldSlots.length; j++) {
+                if (oldSlots[j] != EMPTY_SLOT) {
+                    // distinct elements - precomputed hashes are enough to re-place them
+                    int i = oldHashes[j] & mask;
+                    while (slots[i] != EMPTY_SLOT) {
+                        i = (i + 1) & mask;
+                    }
+                    slots[i] = oldSlots[j];
+                    slotHashes[i] = oldHashes[j];
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable set of {@code int} values, backed by a primitive open-addressing hash table.
+ */
+final class IntHashSnapshot extends PrimitiveHashSnapshot {
+
+    static final IntHashSnapshot EMPTY = new IntHashSnapshot(new int[0]);
+
+    IntHashSnapshot(int[] values) {
+        super(values.length, false);
+        for (int value : values) {
+            add(value);
+        }
+    }
+
+    boolean contains(int value) {
+        return containsValue(value);
+    }
+
+    void forEach(IntConsumer action) {
+        if (containsZero()) {
+            action.accept((int) EMPTY_SLOT);
+        }
+        for (int slot : intSlots) {
+            if (slot != EMPTY_SLOT) {
+                action.accept(slot);
+            }
+        }
+    }
+
+    int[] toArray() {
+        int[] values = new int[size()];
+        int[] next = {0};
+        forEach(value -> values[next[0]++] = value);
+        return values;
+    }
+
+    IntStream stream() {
+        IntStream values = IntStream.of(intSlots).filter(slot -> slot != EMPTY_SLOT);
+        return containsZero() ? IntStream.concat(IntStream.of((int) EMPTY_SLOT), values) : values;
+    }
+
+}
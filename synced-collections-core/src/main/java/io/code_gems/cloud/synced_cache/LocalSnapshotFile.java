@@ -0,0 +1,136 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.extern.java.Log;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A local, on-disk copy of the last synced collection, letting a synced collection start out synced
+ * without depending on its backing source.
+ * <p>
+ *      The file holds a magic number and a format version, followed by the element count and the length-prefixed
+ *      encoded elements, and ends with a CRC32 checksum of all that precedes it. It is written to a temporary sibling
+ *      file and then moved into place, so a partially written file is never loaded. The age of the copy is that of
+ *      the file's last modification - which is refreshed whenever a sync confirms the collection did not change.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+@Log
+class LocalSnapshotFile<E> {
+
+    private static final int MAGIC = 0x53594E43;
+    private static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // an element count read from the file is trusted only once the elements are read - so it presizes up to a cap
+    private static final int MAX_PRESIZED_ELEMENTS = 64 * 1024;
+
+    private final Path file;
+    private final ElementCodec<E> codec;
+    private final Duration maxAge;
+
+    LocalSnapshotFile(Path file, ElementCodec<E> codec, Duration maxAge) {
+        this.file = Objects.requireNonNull(file, "local snapshot file must be provided");
+        this.codec = Objects.requireNonNull(codec, "local snapshot codec must be provided");
+        this.maxAge = Objects.requireNonNull(maxAge, "local snapshot max age must be provided");
+    }
+
+    /**
+     * Loads the local copy, unless it is missing, older than the max age, or invalid.
+     */
+    Optional<Collection<E>> load() {
+        try {
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            var age = Duration.between(Files.getLastModifiedTime(file).toInstant(), Instant.now());
+            if (age.compareTo(maxAge) > 0) {
+                log.info("local snapshot ignored, as it is older than " + maxAge + ": " + file);
+                return Optional.empty();
+            }
+            return Optional.of(read());
+        } catch (IOException | RuntimeException e) {
+            log.warning("local snapshot load failed: " + e);
+            return Optional.empty();
+        }
+    }
+
+    void save(Collection<E> elements) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        var checksum = new CRC32();
+        try (var fileOut = new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE)) {
+            var out = new DataOutputStream(new CheckedOutputStream(fileOut, checksum));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(elements.size());
+            for (E element : elements) {
+                byte[] bytes = codec.encode(Objects.requireNonNull(element, "null elements are not supported"));
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.flush();
+            // the checksum itself is written past the checked stream
+            new DataOutputStream(fileOut).writeLong(checksum.getValue());
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Marks the local copy as up-to-date, when a sync confirmed the collection did not change.
+     */
+    void touch() throws IOException {
+        if (Files.isRegularFile(file)) {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        }
+    }
+
+    private Collection<E> read() throws IOException {
+        long fileSize = Files.size(file);
+        var checksum = new CRC32();
+        try (var fileIn = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            var in = new DataInputStream(new CheckedInputStream(fileIn, checksum));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a local snapshot file: " + file);
+            }
+            int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("unsupported local snapshot format version: " + formatVersion);
+            }
+            int count = in.readInt();
+            // each element is prefixed by its length
+            if (count < 0 || count > fileSize / Integer.BYTES) {
+                throw new IOException("corrupted local snapshot file: " + file);
+            }
+            var elements = new ArrayList<E>(Math.min(count, MAX_PRESIZED_ELEMENTS));
+            for (int i = 0; i < count; i++) {
+                int length = in.readInt();
+                if (length < 0 || length > fileSize) {
+                    throw new IOException("corrupted local snapshot file: " + file);
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                elements.add(codec.decode(bytes));
+            }
+            long expectedChecksum = checksum.getValue();
+            if (new DataInputStream(fileIn).readLong() != expectedChecksum) {
+                throw new IOException("local snapshot checksum mismatch: " + file);
+            }
+            return elements;
+        }
+    }
+
+}
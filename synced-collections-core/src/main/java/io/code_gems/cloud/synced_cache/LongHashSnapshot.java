@@ -0,0 +1,47 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * An immutable set of {@code long} values, backed by a primitive open-addressing hash table.
+ */
+final class LongHashSnapshot extends PrimitiveHashSnapshot {
+
+    static final LongHashSnapshot EMPTY = new LongHashSnapshot(new long[0]);
+
+    LongHashSnapshot(long[] values) {
+        super(values.length, true);
+        for (long value : values) {
+            add(value);
+        }
+    }
+
+    boolean contains(long value) {
+        return containsValue(value);
+    }
+
+    void forEach(LongConsumer action) {
+        if (containsZero()) {
+            action.accept(EMPTY_SLOT);
+        }
+        for (long slot : longSlots) {
+            if (slot != EMPTY_SLOT) {
+                action.accept(slot);
+            }
+        }
+    }
+
+    long[] toArray() {
+        long[] values = new long[size()];
+        int[] next = {0};
+        forEach(value -> values[next[0]++] = value);
+        return values;
+    }
+
+    LongStream stream() {
+        LongStream values = LongStream.of(longSlots).filter(slot -> slot != EMPTY_SLOT);
+        return containsZero() ? LongStream.concat(LongStream.of(EMPTY_SLOT), values) : values;
+    }
+
+}
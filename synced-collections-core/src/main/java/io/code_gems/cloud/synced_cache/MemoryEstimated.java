@@ -0,0 +1,37 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Collection;
+import java.util.function.ToLongFunction;
+
+/**
+ * A snapshot estimating its own memory footprint: its internal structure, plus the elements it holds as objects -
+ * as estimated by a given function. Estimates assume a 64-bit JVM with compressed references.
+ */
+interface MemoryEstimated {
+
+    int OBJECT_HEADER_BYTES = 16;
+    int ARRAY_HEADER_BYTES = 16;
+    int REFERENCE_BYTES = 4;
+
+    long estimatedBytes(ToLongFunction<Object> elementBytes);
+
+    /**
+     * Estimates the footprint of any snapshot - snapshots other than {@link MemoryEstimated} ones are estimated as
+     * an array of references to their elements.
+     */
+    static long estimatedBytesOf(Collection<?> snapshot, ToLongFunction<Object> elementBytes) {
+        if (snapshot instanceof MemoryEstimated) {
+            return ((MemoryEstimated) snapshot).estimatedBytes(elementBytes);
+        }
+        return OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + referencesAndElementsBytes(snapshot, elementBytes);
+    }
+
+    static long referencesAndElementsBytes(Iterable<?> elements, ToLongFunction<Object> elementBytes) {
+        long bytes = 0;
+        for (Object element : elements) {
+            bytes += REFERENCE_BYTES + (element == null ? 0 : elementBytes.applyAsLong(element));
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,13 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * Loads the presence of a single element from the backing source, for a {@link SyncedCollection} syncing only a hot
+ * subset of it - consulted by {@code contains} whenever the synced snapshot misses.
+ * @param <E> the type of the Collection elements
+ */
+@FunctionalInterface
+public interface MissLoader<E> {
+
+    boolean isPresent(E element) throws Exception;
+
+}
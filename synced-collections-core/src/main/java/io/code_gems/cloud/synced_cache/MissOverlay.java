@@ -0,0 +1,134 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.extern.java.Log;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded cache of the results of a {@link MissLoader} - absent elements included - each kept for a limited time.
+ * Cleared whenever a new snapshot is synced, so that loaded results never outlive the snapshot they complement.
+ * <p>
+ *      Lookups take no lock: each element is loaded once at a time, with concurrent lookups of it waiting for that
+ *      load, and entries beyond the max are evicted in approximately least-recently-used order - the eldest loaded
+ *      entry not looked up again since it was last considered for eviction goes first (the CLOCK algorithm).
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+@Log
+final class MissOverlay<E> {
+
+    private static final Object NULL_KEY = new Object();
+
+    private final MissLoader<E> loader;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final ConcurrentMap<Object, LoadedEntry> entries = new ConcurrentHashMap<>();
+    private final Queue<LoadedEntry> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedEntries = new AtomicInteger();
+
+    MissOverlay(MissLoader<E> loader, int maxEntries, Duration ttl) {
+        if (loader == null) {
+            throw new IllegalStateException("Instance of MissLoader must be provided");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.loader = loader;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Objects.requireNonNull(ttl, "miss loader ttl must be provided").toNanos();
+    }
+
+    /**
+     * @return the cached presence of the given element, loading it if not cached - or false if loading failed
+     */
+    boolean contains(Object o) {
+        Object key = o == null ? NULL_KEY : o;
+        var entry = entries.get(key);
+        if (entry == null || entry.isExpired()) {
+            var loading = new LoadedEntry(key);
+            entry = entries.compute(key, (k, current) -> current == null || current.isExpired() ? loading : current);
+            if (entry == loading) {
+                return load(loading, o);
+            }
+        }
+        entry.referenced = true;
+        return entry.presence.join();
+    }
+
+    /**
+     * Discards all loaded results. Loads in flight complete their lookups, yet are not cached.
+     */
+    void clear() {
+        // entries left in the eviction queue are discarded once reached
+        entries.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean load(LoadedEntry entry, Object o) {
+        long start = System.nanoTime();
+        boolean present;
+        try {
+            present = loader.isPresent((E) o);
+        } catch (Throwable e) {
+            entries.remove(entry.key, entry);
+            entry.presence.complete(false);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            log.warning("miss load failed: " + e);
+            return false;
+        }
+        entry.loadedNanos = start;
+        entry.presence.complete(present);
+        evictionQueue.offer(entry);
+        queuedEntries.incrementAndGet();
+        evictBeyondMax();
+        return present;
+    }
+
+    private void evictBeyondMax() {
+        while (queuedEntries.get() > maxEntries) {
+            var eldest = evictionQueue.poll();
+            if (eldest == null) {
+                return;
+            }
+            queuedEntries.decrementAndGet();
+            if (entries.get(eldest.key) != eldest) {
+                // expired and reloaded, or cleared, since queued
+                continue;
+            }
+            if (eldest.referenced) {
+                // looked up since last considered - given a second chance
+                eldest.referenced = false;
+                evictionQueue.offer(eldest);
+                queuedEntries.incrementAndGet();
+            } else {
+                entries.remove(eldest.key, eldest);
+            }
+        }
+    }
+
+    private final class LoadedEntry {
+
+        private final Object key;
+        private final CompletableFuture<Boolean> presence = new CompletableFuture<>();
+        private volatile long loadedNanos;
+        private volatile boolean referenced;
+
+        private LoadedEntry(Object key) {
+            this.key = key;
+        }
+
+        private boolean isExpired() {
+            return presence.isDone() && System.nanoTime() - loadedNanos >= ttlNanos;
+        }
+    }
+
+}
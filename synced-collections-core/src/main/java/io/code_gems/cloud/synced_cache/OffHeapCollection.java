@@ -0,0 +1,313 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable Collection serialized into a single buffer outside the Java heap - a direct or a memory-mapped one -
+ * so that large snapshots add next to nothing to the heap, and to the work of the garbage collector.
+ * <p>
+ *      The buffer starts with an open-addressing hash table of entry offsets, followed by the entries themselves -
+ *      each being the precomputed hash and length of an encoded element, followed by its bytes - in the iteration order
+ *      of the source collection (duplicates included). Lookups encode the looked up element and compare bytes
+ *      in place; iteration decodes each element.
+ * </p>
+ * <p>
+ *      Null elements are not supported. The buffer is released explicitly once the snapshot is retired by its synced
+ *      collection and no reader is left - see {@link ReleaseGuard} - or else once the snapshot is garbage collected.
+ *      Reading a released snapshot fails with an {@link IllegalStateException}.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+@Log
+final class OffHeapCollection<E> extends ReadOnlyCollection<E> implements MemoryEstimated, Releasable {
+
+    private static final int EMPTY_SLOT = 0;
+    private static final int ENTRY_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_CAPACITY = 1 << 28;
+    private static final int MIN_SCRATCH_BYTES = 64 * 1024;
+    private static final int PRESIZED_ENTRY_BYTES = 32;
+    private static final int LOOKUP_BUFFER_BYTES = 1024;
+    private static final ThreadLocal<byte[]> LOOKUP_BUFFER = ThreadLocal.withInitial(() -> new byte[LOOKUP_BUFFER_BYTES]);
+
+    private final ElementCodec<E> codec;
+    private final ByteBuffer buffer;
+    private final int mask;
+    private final int entriesStart;
+    private final int size;
+    private final ReleaseGuard releaseGuard;
+
+    OffHeapCollection(Collection<? extends E> source, ElementCodec<E> codec, IntFunction<ByteBuffer> allocator) {
+        this(source.iterator(), source.size(), codec, allocator);
+    }
+
+    /**
+     * Encodes elements as they are consumed from the given iterator into a growing direct scratch buffer, copied as
+     * a whole into the snapshot buffer once the number of elements - and so the size of the hash table - is known.
+     * A non-negative size hint presizes the scratch buffer.
+     */
+    OffHeapCollection(Iterator<? extends E> source, int sizeHint, ElementCodec<E> codec, IntFunction<ByteBuffer> allocator) {
+        this.codec = codec;
+        var entries = ByteBuffer.allocateDirect(
+                (int) Math.min(Math.max((long) sizeHint * PRESIZED_ENTRY_BYTES, MIN_SCRATCH_BYTES), Integer.MAX_VALUE));
+        try {
+            int count = 0;
+            while (source.hasNext()) {
+                E element = source.next();
+                byte[] bytes = codec.encode(Objects.requireNonNull(element, "null elements are not supported"));
+                entries = withRemaining(entries, ENTRY_HEADER_BYTES + bytes.length);
+                entries.putInt(hash(bytes, bytes.length)).putInt(bytes.length).put(bytes);
+                count++;
+            }
+            int capacity = HashTables.tableCapacityFor(count, MAX_CAPACITY);
+            long totalBytes = (long) capacity * Integer.BYTES + entries.position();
+            if (totalBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Collection too large to store in a single buffer: " + totalBytes + " bytes");
+            }
+            this.buffer = allocator.apply((int) totalBytes);
+            this.mask = capacity - 1;
+            this.entriesStart = capacity * Integer.BYTES;
+            this.size = count;
+            buffer.put(entriesStart, entries, 0, entries.position());
+        } finally {
+            free(entries);
+        }
+        this.releaseGuard = new ReleaseGuard(() -> free(buffer));
+        int offset = entriesStart;
+        for (int i = 0; i < size; i++) {
+            insert(offset);
+            offset += ENTRY_HEADER_BYTES + buffer.getInt(offset + Integer.BYTES);
+        }
+    }
+
+    /**
+     * Allocates buffers mapped to temporary files in the given directory. Files are deleted right after being mapped,
+     * so their disk space is reclaimed once the snapshot is garbage collected.
+     */
+    static IntFunction<ByteBuffer> mappedFileAllocator(Path directory) {
+        return bytes -> {
+            try {
+                Path file = Files.createTempFile(directory, "synced-snapshot-", ".bin");
+                try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                } finally {
+                    deleteMappedFile(file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @Override
+    public long estimatedBytes(ToLongFunction<Object> elementBytes) {
+        // elements are held encoded, outside the heap - or in the page cache, when memory-mapped
+        return OBJECT_HEADER_BYTES + buffer.capacity();
+    }
+
+    @Override
+    public ReleaseGuard releaseGuard() {
+        return releaseGuard;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        byte[] bytes = LOOKUP_BUFFER.get();
+        int length;
+        try {
+            length = codec.encodeInto((E) o, bytes);
+            if (length < 0) {
+                bytes = codec.encode((E) o);
+                length = bytes.length;
+            }
+        } catch (ClassCastException e) {
+            return false;
+        }
+        int hash = hash(bytes, length);
+        int read = releaseGuard.enter();
+        if (read == ReleaseGuard.RELEASED) {
+            throw new IllegalStateException("snapshot released");
+        }
+        try {
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                int entry = buffer.getInt(i * Integer.BYTES);
+                if (entry == EMPTY_SLOT) {
+                    return false;
+                }
+                if (entryEquals(entry, hash, bytes, length)) {
+                    return true;
+                }
+            }
+        } finally {
+            releaseGuard.exit(read);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        if (size == 0) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<>() {
+            // unpinned once iterated through, or else once garbage collected
+            private final Cleaner.Cleanable pin = releaseGuard.pin(this);
+            private int offset = entriesStart;
+            private int remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public E next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                byte[] bytes = new byte[buffer.getInt(offset + Integer.BYTES)];
+                buffer.get(offset + ENTRY_HEADER_BYTES, bytes);
+                offset += ENTRY_HEADER_BYTES + bytes.length;
+                if (--remaining == 0) {
+                    pin.clean();
+                }
+                return codec.decode(bytes);
+            }
+        };
+    }
+
+    private void insert(int entry) {
+        for (int i = buffer.getInt(entry) & mask; ; i = (i + 1) & mask) {
+            int slot = buffer.getInt(i * Integer.BYTES);
+            if (slot == EMPTY_SLOT) {
+                buffer.putInt(i * Integer.BYTES, entry);
+                return;
+            }
+            if (sameEntries(slot, entry)) {
+                return;
+            }
+        }
+    }
+
+    private boolean sameEntries(int entry, int other) {
+        int length = buffer.getInt(entry + Integer.BYTES);
+        if (buffer.getInt(entry) != buffer.getInt(other) || buffer.getInt(other + Integer.BYTES) != length) {
+            return false;
+        }
+        for (int i = ENTRY_HEADER_BYTES; i < ENTRY_HEADER_BYTES + length; i++) {
+            if (buffer.get(entry + i) != buffer.get(other + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean entryEquals(int entry, int hash, byte[] bytes, int length) {
+        if (buffer.getInt(entry) != hash || buffer.getInt(entry + Integer.BYTES) != length) {
+            return false;
+        }
+        int start = entry + ENTRY_HEADER_BYTES;
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] bytes, int length) {
+        int h = 1;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the given scratch buffer - or a copy of it twice as large, if short of the given remaining bytes
+     */
+    private static ByteBuffer withRemaining(ByteBuffer scratch, int bytes) {
+        if (scratch.remaining() >= bytes) {
+            return scratch;
+        }
+        long required = (long) scratch.position() + bytes;
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Collection too large to store in a single buffer: " + required + " bytes");
+        }
+        int capacity = (int) Math.min(Math.max(2L * scratch.capacity(), required), Integer.MAX_VALUE);
+        var grown = ByteBuffer.allocateDirect(capacity).put(scratch.flip());
+        free(scratch);
+        return grown;
+    }
+
+    /**
+     * Frees the given direct or mapped buffer right away, rather than once garbage collected - where supported.
+     * The buffer must not be accessed afterwards.
+     */
+    private static void free(ByteBuffer buffer) {
+        if (BufferCleaner.INVOKE_CLEANER == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            BufferCleaner.INVOKE_CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+            log.warning("buffer release failed: " + e);
+        }
+    }
+
+    private static void deleteMappedFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // some platforms do not allow deleting mapped files
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private static class BufferCleaner {
+        private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+        private static MethodHandle invokeCleaner() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                var theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return MethodHandles.lookup()
+                                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                                    .bindTo(theUnsafe.get(null));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.info("explicit buffer release unavailable, leaving buffers to the garbage collector: " + e);
+                return null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * Fails a sync that did replace the snapshot, yet only partially - e.g. keeping the previous elements of partitions
+ * that failed to fetch. The sync counts as failed, as to the allowed no sync period.
+ */
+public class PartialSyncException extends Exception {
+
+    private final transient Object snapshot;
+
+    PartialSyncException(String message, Exception cause, Object snapshot) {
+        super(message, cause);
+        this.snapshot = snapshot;
+    }
+
+    Object getSnapshot() {
+        return snapshot;
+    }
+
+}
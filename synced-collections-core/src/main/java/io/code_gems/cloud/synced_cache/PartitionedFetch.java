@@ -0,0 +1,187 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches the partitions of a {@link PartitionedSyncCollectionSupplier}, with at most its max parallel fetches running
+ * at a time - keeping the elements last fetched from each partition, for its
+ * {@link PartitionedSyncCollectionSupplier.PartitionFailurePolicy#KEEP_PREVIOUS} failure policy only.
+ * <p>
+ *      Partitions are fetched on a pool of partition threads growing on demand, rather than on the bounded, shared
+ *      fetch threads - so each partition starts running as soon as its turn comes, and a hung partition fetch ignoring
+ *      interrupts holds only a thread of its own. A partition not fetched within the fetch timeout, if any, counted
+ *      from its start, is interrupted and failed - like any other failed partition - making room for the next one.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+final class PartitionedFetch<E> {
+
+    private final PartitionedSyncCollectionSupplier<E> supplier;
+    private final int maxParallelFetches;
+    private final Duration timeout;
+    private List<Collection<E>> lastFetched = List.of();
+
+    PartitionedFetch(PartitionedSyncCollectionSupplier<E> supplier, Duration timeout) {
+        this.maxParallelFetches = supplier.maxParallelFetches();
+        if (maxParallelFetches < 1) {
+            throw new IllegalArgumentException("maxParallelFetches must be positive: " + maxParallelFetches);
+        }
+        this.supplier = supplier;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the merged elements of all partitions, along with the failure of any partitions kept as last fetched
+     * @throws Exception the failure of the first failed partition, with those of the others suppressed - unless kept
+     */
+    Fetched<E> fetch() throws Exception {
+        var partitions = supplier.partitions();
+        int count = partitions.size();
+        var fetches = new ArrayList<CompletableFuture<Collection<E>>>(count);
+        for (int i = 0; i < count; i++) {
+            fetches.add(new CompletableFuture<>());
+        }
+        var next = new AtomicInteger();
+        for (int w = 0; w < Math.min(maxParallelFetches, count); w++) {
+            fetchNext(partitions, fetches, next);
+        }
+        awaitAll(fetches);
+
+        boolean keepPartitions = supplier.failurePolicy() == PartitionedSyncCollectionSupplier.PartitionFailurePolicy.KEEP_PREVIOUS;
+        boolean keepPrevious = keepPartitions && lastFetched.size() == count;
+        var fetched = new ArrayList<Collection<E>>(count);
+        Exception failure = null;
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            try {
+                fetched.add(fetches.get(i).join());
+                continue;
+            } catch (CompletionException e) {
+                var partitionFailure = asException(e.getCause());
+                if (failure == null) {
+                    failure = partitionFailure;
+                } else {
+                    failure.addSuppressed(partitionFailure);
+                }
+            }
+            failed++;
+            fetched.add(keepPrevious ? lastFetched.get(i) : null);
+        }
+        if (failure != null && !keepPrevious) {
+            throw failure;
+        }
+        int size = fetched.stream().mapToInt(Collection::size).sum();
+        var merged = new ArrayList<E>(size);
+        fetched.forEach(merged::addAll);
+        // only kept partitions outlive the merge
+        return new Fetched<>(keepPartitions ? fetched : null, merged, failure, failed);
+    }
+
+    /**
+     * Starts fetching the next partition not fetched yet, if any - and the one after it, once done.
+     */
+    private void fetchNext(List<SyncCollectionSupplier<E>> partitions, List<CompletableFuture<Collection<E>>> fetches,
+                           AtomicInteger next) {
+        for (int i = next.getAndIncrement(); i < partitions.size(); i = next.getAndIncrement()) {
+            var result = fetches.get(i);
+            if (result.isDone()) {
+                // cancelled before started
+                continue;
+            }
+            int partition = i;
+            var fetch = FetchPolicy.fetchAsync(partitions.get(i), PartitionThreads.POOL);
+            if (timeout != null) {
+                // the partition threads never queue fetches, so the timeout counts from the start of the fetch
+                fetch.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            // a timed out partition interrupts its fetch
+            result.whenComplete((fetched, e) -> fetch.cancel(true));
+            fetch.whenComplete((fetched, e) -> {
+                var failure = e instanceof CompletionException ? e.getCause() : e;
+                if (failure instanceof TimeoutException) {
+                    result.completeExceptionally(
+                            new TimeoutException("partition #" + partition + " fetch timed out after " + timeout));
+                } else if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else if (fetched == null) {
+                    result.completeExceptionally(new IllegalStateException("partition #" + partition + " fetched null"));
+                } else {
+                    result.complete(fetched);
+                }
+                fetchNext(partitions, fetches, next);
+            });
+            return;
+        }
+    }
+
+    /**
+     * Awaits all partition fetches - each bounded by the timeout, if any.
+     */
+    private static <E> void awaitAll(List<CompletableFuture<Collection<E>>> fetches) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).get();
+        } catch (ExecutionException e) {
+            // partition failures are collected once all are done
+        } catch (InterruptedException e) {
+            fetches.forEach(fetch -> fetch.cancel(true));
+            throw e;
+        }
+    }
+
+    private static Exception asException(Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return failure instanceof Exception ? (Exception) failure : new ExecutionException(failure);
+    }
+
+    /**
+     * Keeps the partitions of the given fetch as last fetched, once a snapshot of them is in place - for the
+     * {@link PartitionedSyncCollectionSupplier.PartitionFailurePolicy#KEEP_PREVIOUS} failure policy only, as no other
+     * policy reads them.
+     */
+    void accepted(Fetched<E> fetched) {
+        if (fetched.partitions != null) {
+            lastFetched = fetched.partitions;
+        }
+    }
+
+    /**
+     * The merged elements of a partitioned fetch, and the failure of the partitions kept as last fetched - if any.
+     */
+    static final class Fetched<E> {
+
+        private final List<Collection<E>> partitions;
+        final Collection<E> elements;
+        final Exception failure;
+        final int failedPartitions;
+
+        private Fetched(List<Collection<E>> partitions, Collection<E> elements, Exception failure, int failedPartitions) {
+            this.partitions = partitions;
+            this.elements = elements;
+            this.failure = failure;
+            this.failedPartitions = failedPartitions;
+        }
+    }
+
+    /**
+     * The shared pool of partition fetch threads - a thread per partition fetch running, none queued, each thread
+     * kept for a while once idle.
+     */
+    private static class PartitionThreads {
+        private static final Executor POOL = Executors.newCachedThreadPool(
+                SyncScheduler.daemonThreadFactory("synced-collections-partition-fetch"));
+    }
+
+}
@@ -0,0 +1,82 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link SyncCollectionSupplier} of a backing collection split into partitions - e.g. DB shards - fetched
+ * concurrently, up to {@link #maxParallelFetches()} at a time, and merged into a single snapshot. A sync then takes
+ * about as long as its slowest partition fetch, rather than as long as all of them together.
+ * <p>
+ *      A failed partition fetch - or one not done within the fetch timeout of the synced collection, counted from its
+ *      start - fails the whole sync, unless the {@link #failurePolicy()} is {@link PartitionFailurePolicy#KEEP_PREVIOUS}. A sync failed
+ *      altogether falls back to the fallback suppliers of the synced collection, if any.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+public interface PartitionedSyncCollectionSupplier<E> extends SyncCollectionSupplier<E> {
+
+    int DEFAULT_MAX_PARALLEL_FETCHES = 8;
+
+    enum PartitionFailurePolicy {
+        /**
+         * A failed partition fetch fails the whole sync, keeping the previous snapshot in place.
+         */
+        FAIL_SYNC,
+        /**
+         * A failed partition fetch keeps the elements of the partition as last fetched, merged with the freshly
+         * fetched partitions into a new snapshot - yet counts the sync as failed, as to the allowed no sync period.
+         * A partition never fetched before still fails the whole sync.
+         */
+        KEEP_PREVIOUS
+    }
+
+    /**
+     * The suppliers of the partitions - the same ones, in the same order, on every call.
+     */
+    List<SyncCollectionSupplier<E>> partitions();
+
+    default int maxParallelFetches() {
+        return DEFAULT_MAX_PARALLEL_FETCHES;
+    }
+
+    default PartitionFailurePolicy failurePolicy() {
+        return PartitionFailurePolicy.FAIL_SYNC;
+    }
+
+    /**
+     * Fetches all partitions sequentially, on the calling thread.
+     */
+    @Override
+    default Collection<E> get() {
+        var elements = new ArrayList<E>();
+        partitions().forEach(partition -> elements.addAll(partition.get()));
+        return elements;
+    }
+
+    static <E> PartitionedSyncCollectionSupplier<E> of(List<SyncCollectionSupplier<E>> partitions, int maxParallelFetches,
+                                                       PartitionFailurePolicy failurePolicy) {
+        if (maxParallelFetches < 1) {
+            throw new IllegalArgumentException("maxParallelFetches must be positive: " + maxParallelFetches);
+        }
+        var partitionSuppliers = List.copyOf(partitions);
+        return new PartitionedSyncCollectionSupplier<>() {
+            @Override
+            public List<SyncCollectionSupplier<E>> partitions() {
+                return partitionSuppliers;
+            }
+
+            @Override
+            public int maxParallelFetches() {
+                return maxParallelFetches;
+            }
+
+            @Override
+            public PartitionFailurePolicy failurePolicy() {
+                return failurePolicy;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,94 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * An immutable set of primitive values, backed by an open-addressing hash table - probed with the values widened to
+ * {@code long}, whatever the width they are stored in.
+ * <p>
+ *      {@code 0} marks an empty slot, so the presence of the value {@code 0} itself is kept aside. Tables are filled
+ *      up to a load factor of 0.75 - denser than the object indexes, as probing compares values in place.
+ * </p>
+ */
+abstract class PrimitiveHashSnapshot {
+
+    static final long EMPTY_SLOT = 0L;
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    // only the table of the snapshot's value width is allocated - so probes read it with no virtual call
+    final long[] longSlots;
+    final int[] intSlots;
+    private final int mask;
+    private boolean containsZero;
+    private int size;
+
+    /**
+     * @param wide whether values are stored as {@code long}, rather than {@code int}
+     */
+    PrimitiveHashSnapshot(int valueCount, boolean wide) {
+        int capacity = HashTables.tableCapacityFor(valueCount, MAX_LOAD_FACTOR, HashTables.MAX_CAPACITY);
+        this.longSlots = wide ? new long[capacity] : null;
+        this.intSlots = wide ? null : new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds the given value, if absent - only while the snapshot is being built.
+     */
+    final void add(long value) {
+        if (value == EMPTY_SLOT) {
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            return;
+        }
+        for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+            long slot = slot(i);
+            if (slot == value) {
+                return;
+            }
+            if (slot == EMPTY_SLOT) {
+                if (longSlots != null) {
+                    longSlots[i] = value;
+                } else {
+                    intSlots[i] = (int) value;
+                }
+                size++;
+                return;
+            }
+        }
+    }
+
+    final boolean containsValue(long value) {
+        if (value == EMPTY_SLOT) {
+            return containsZero;
+        }
+        for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+            long slot = slot(i);
+            if (slot == value) {
+                return true;
+            }
+            if (slot == EMPTY_SLOT) {
+                return false;
+            }
+        }
+    }
+
+    final boolean containsZero() {
+        return containsZero;
+    }
+
+    final int size() {
+        return size;
+    }
+
+    private long slot(int i) {
+        return longSlots != null ? longSlots[i] : intSlots[i];
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
@@ -0,0 +1,48 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changes pushed by a {@link ChangeFeed} and not applied yet, coalesced into batches: the first change pushed
+ * after a batch was drained opens the next one, to be applied once its debounce window closes.
+ * @param <E> the type of the Collection elements
+ */
+final class PushedChanges<E> {
+
+    private List<SyncDelta<E>> pending = new ArrayList<>();
+    private boolean batchOpen;
+
+    /**
+     * @return true if the given changes opened a new batch
+     */
+    synchronized boolean add(SyncDelta<E> changes) {
+        pending.add(changes);
+        if (batchOpen) {
+            return false;
+        }
+        batchOpen = true;
+        return true;
+    }
+
+    /**
+     * @return the changes pushed since the previous batch was drained, in order - closing the current batch
+     */
+    synchronized List<SyncDelta<E>> drain() {
+        var batch = pending;
+        pending = new ArrayList<>();
+        batchOpen = false;
+        return batch;
+    }
+
+    /**
+     * Puts back a drained batch that failed to apply, ahead of the changes pushed since - to be retried along with
+     * the next batch.
+     */
+    synchronized void restore(List<SyncDelta<E>> batch) {
+        var restored = new ArrayList<>(batch);
+        restored.addAll(pending);
+        pending = restored;
+    }
+
+}
@@ -0,0 +1,49 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * A base for the immutable Collections backing synced snapshots - every mutator throws
+ * {@link UnsupportedOperationException}, regardless of its arguments.
+ * @param <E> the type of the Collection elements
+ */
+abstract class ReadOnlyCollection<E> extends AbstractCollection<E> {
+
+    @Override
+    public final boolean add(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final boolean addAll(Collection<? extends E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final boolean removeIf(Predicate<? super E> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public final void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+}
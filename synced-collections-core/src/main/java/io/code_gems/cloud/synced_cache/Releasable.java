@@ -0,0 +1,14 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * A snapshot holding memory outside the Java heap - or wrapping one that does - released explicitly by its
+ * {@link ReleaseGuard} once retired by its synced collection.
+ */
+interface Releasable {
+
+    /**
+     * @return the guard releasing the memory of this snapshot - or null, if a wrapped snapshot holds none
+     */
+    ReleaseGuard releaseGuard();
+
+}
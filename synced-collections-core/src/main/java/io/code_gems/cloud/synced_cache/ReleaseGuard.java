@@ -0,0 +1,136 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.lang.ref.Cleaner;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Releases the memory a snapshot holds outside the Java heap explicitly - once its synced collection retires it and
+ * no reader is left, rather than whenever the garbage collector gets to it.
+ * <p>
+ *      Single reads enter and exit the guard, counted on per-thread stripes so that concurrent readers do not contend.
+ *      Readers outliving a single call - iterators, snapshot views, pending change deliveries - pin the snapshot
+ *      instead, until done with it or garbage collected. A read entering once the snapshot is released is refused,
+ *      rather than touching freed memory.
+ * </p>
+ */
+final class ReleaseGuard {
+
+    static final int RELEASED = -1;
+    private static final int PINNED = -2;
+    private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+    // longs between stripes, keeping each on a cache line of its own
+    private static final int STRIPE_SPACING = 16;
+    private static final Cleaner.Cleanable NOT_PINNED = () -> { };
+
+    private final AtomicLongArray reads = new AtomicLongArray(STRIPES * STRIPE_SPACING);
+    private final Runnable release;
+    private volatile boolean retired;
+    private int pins;
+    private boolean released;
+
+    ReleaseGuard(Runnable release) {
+        this.release = release;
+    }
+
+    /**
+     * @return the guard of the given snapshot - or null, unless it is {@link Releasable}
+     */
+    static ReleaseGuard of(Collection<?> snapshot) {
+        return snapshot instanceof Releasable ? ((Releasable) snapshot).releaseGuard() : null;
+    }
+
+    /**
+     * Retires the given snapshot, if releasable.
+     */
+    static void retire(Collection<?> snapshot) {
+        var guard = of(snapshot);
+        if (guard != null) {
+            guard.retire();
+        }
+    }
+
+    /**
+     * Pins the given snapshot, if releasable - see {@link #pin(Object)}.
+     */
+    static Cleaner.Cleanable pin(Object holder, Collection<?> snapshot) {
+        var guard = of(snapshot);
+        return guard == null ? NOT_PINNED : guard.pin(holder);
+    }
+
+    /**
+     * @return the read entered, to {@link #exit(int)} once done - or {@link #RELEASED}, refusing the read
+     */
+    int enter() {
+        int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SPACING;
+        reads.getAndIncrement(stripe);
+        if (!retired) {
+            return stripe;
+        }
+        // the release may be under way, having missed this read - so counted as a pin instead, under the lock
+        reads.getAndDecrement(stripe);
+        return tryPin() ? PINNED : RELEASED;
+    }
+
+    void exit(int read) {
+        if (read == PINNED) {
+            unpin();
+            return;
+        }
+        reads.getAndDecrement(read);
+        if (retired) {
+            tryRelease();
+        }
+    }
+
+    /**
+     * Pins the snapshot until the returned pin is cleaned, or the given holder is garbage collected - whichever
+     * comes first.
+     * @throws IllegalStateException if the snapshot is released already
+     */
+    Cleaner.Cleanable pin(Object holder) {
+        if (!tryPin()) {
+            throw new IllegalStateException("snapshot released");
+        }
+        return PinCleaner.CLEANER.register(holder, this::unpin);
+    }
+
+    /**
+     * Marks the snapshot as no longer published by its synced collection - releasing it once no reader is left.
+     */
+    void retire() {
+        retired = true;
+        tryRelease();
+    }
+
+    private synchronized boolean tryPin() {
+        if (released) {
+            return false;
+        }
+        pins++;
+        return true;
+    }
+
+    private synchronized void unpin() {
+        pins--;
+        tryRelease();
+    }
+
+    private synchronized void tryRelease() {
+        if (released || !retired || pins > 0) {
+            return;
+        }
+        for (int i = 0; i < reads.length(); i += STRIPE_SPACING) {
+            if (reads.get(i) != 0) {
+                return;
+            }
+        }
+        released = true;
+        release.run();
+    }
+
+    private static class PinCleaner {
+        private static final Cleaner CLEANER = Cleaner.create(SyncScheduler.daemonThreadFactory("synced-collections-pins"));
+    }
+
+}
@@ -0,0 +1,22 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.Value;
+
+import java.util.function.Function;
+
+/**
+ * The definition of a named index of synced elements, by the key extracted from each element.
+ * Elements with a {@code null} key are not indexed.
+ * @param <E> the type of the Collection elements
+ */
+@Value
+class SecondaryIndex<E> {
+
+    String name;
+    Function<? super E, ?> keyExtractor;
+    /**
+     * Whether each key may be extracted from a single element at most - a snapshot breaking this fails the sync.
+     */
+    boolean unique;
+
+}
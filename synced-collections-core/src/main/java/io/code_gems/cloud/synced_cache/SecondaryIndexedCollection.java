@@ -0,0 +1,181 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * An immutable snapshot carrying secondary indexes of its elements, built along with it - so that elements are
+ * looked up by key in constant time, and the indexes are always replaced together with the snapshot.
+ * All Collection operations are delegated to the wrapped snapshot.
+ * @param <E> the type of the Collection elements
+ */
+final class SecondaryIndexedCollection<E> extends ReadOnlyCollection<E> implements MemoryEstimated, Releasable {
+
+    private static final int INDEX_ENTRY_BYTES = 32 + OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES;
+
+    private final Collection<E> snapshot;
+    private final Map<String, Map<Object, List<E>>> indexes;
+
+    private SecondaryIndexedCollection(Collection<E> snapshot, List<SecondaryIndex<E>> definitions) {
+        this.snapshot = snapshot;
+        var built = new HashMap<String, Map<Object, List<E>>>();
+        for (SecondaryIndex<E> definition : definitions) {
+            built.put(definition.getName(), buildIndex(snapshot, definition));
+        }
+        this.indexes = built;
+    }
+
+    /**
+     * Wraps the given factory, indexing each snapshot it creates by the given index definitions.
+     * @throws IllegalArgumentException if several definitions share a name
+     */
+    static <E> SnapshotFactory<E> indexedBy(SnapshotFactory<E> snapshotFactory, List<SecondaryIndex<E>> definitions) {
+        var indexDefinitions = List.copyOf(definitions);
+        var names = new HashSet<String>();
+        for (SecondaryIndex<E> definition : indexDefinitions) {
+            if (!names.add(definition.getName())) {
+                throw new IllegalArgumentException("Duplicate index name: " + definition.getName());
+            }
+        }
+        return new SnapshotFactory<>() {
+            @Override
+            public Collection<E> create(Collection<E> elements) {
+                return new SecondaryIndexedCollection<>(snapshotFactory.create(elements), indexDefinitions);
+            }
+
+            @Override
+            public Collection<E> create(Iterator<? extends E> elements, int sizeHint) {
+                return new SecondaryIndexedCollection<>(snapshotFactory.create(elements, sizeHint), indexDefinitions);
+            }
+        };
+    }
+
+    /**
+     * @return the snapshot wrapped by the given one, if indexed - or the given snapshot itself
+     */
+    @SuppressWarnings("unchecked")
+    static <E> Collection<E> unwrap(Collection<E> snapshot) {
+        return snapshot instanceof SecondaryIndexedCollection ? ((SecondaryIndexedCollection<E>) snapshot).snapshot : snapshot;
+    }
+
+    /**
+     * Looks up the elements indexed under the given key, in the given snapshot.
+     * @throws IllegalArgumentException if the snapshot has no index by the given name
+     */
+    @SuppressWarnings("unchecked")
+    static <E> List<E> lookup(Collection<E> snapshot, String indexName, Object key) {
+        if (!(snapshot instanceof SecondaryIndexedCollection)) {
+            throw new IllegalArgumentException("No index defined by the name: " + indexName);
+        }
+        return ((SecondaryIndexedCollection<E>) snapshot).lookup(indexName, key);
+    }
+
+    /**
+     * @return the elements indexed under the given key, in snapshot iteration order - empty if none
+     * @throws IllegalArgumentException if no index is defined by the given name
+     */
+    List<E> lookup(String indexName, Object key) {
+        var index = indexes.get(indexName);
+        if (index == null) {
+            throw new IllegalArgumentException("No index defined by the name: " + indexName);
+        }
+        return key == null ? List.of() : index.getOrDefault(key, List.of());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return snapshot.contains(o);
+    }
+
+    /**
+     * @return the wrapped snapshot
+     */
+    Collection<E> getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public long estimatedBytes(ToLongFunction<Object> elementBytes) {
+        long bytes = OBJECT_HEADER_BYTES + MemoryEstimated.estimatedBytesOf(snapshot, elementBytes);
+        for (Map<Object, List<E>> index : indexes.values()) {
+            // a hash map entry and an element list per key - keys are mostly extracted from, and shared with, elements
+            bytes += ARRAY_HEADER_BYTES + (long) index.size() * (INDEX_ENTRY_BYTES + 2 * REFERENCE_BYTES);
+            for (List<E> elements : index.values()) {
+                bytes += (long) REFERENCE_BYTES * elements.size();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public ReleaseGuard releaseGuard() {
+        return ReleaseGuard.of(snapshot);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return snapshot.iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return snapshot.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return snapshot.toArray(a);
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        snapshot.forEach(action);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return snapshot.spliterator();
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return snapshot.stream();
+    }
+
+    private static <E> Map<Object, List<E>> buildIndex(Collection<E> snapshot, SecondaryIndex<E> definition) {
+        var index = new HashMap<Object, List<E>>();
+        for (E element : snapshot) {
+            Object key = definition.getKeyExtractor().apply(element);
+            if (key == null) {
+                continue;
+            }
+            if (definition.isUnique()) {
+                var indexed = index.putIfAbsent(key, Collections.singletonList(element));
+                // equal elements - e.g. repeats of a List source - are indexed once; only distinct ones collide
+                if (indexed != null && !indexed.get(0).equals(element)) {
+                    throw new SnapshotRejectedException(
+                            "duplicate key in unique index '" + definition.getName() + "': " + key);
+                }
+            } else {
+                index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(element);
+            }
+        }
+        if (!definition.isUnique()) {
+            index.replaceAll((key, elements) -> Collections.unmodifiableList(elements));
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,111 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Limits of the snapshots a synced collection accepts, guarding against a backing source suddenly returning far more
+ * - or far fewer - elements than usual. Unset (null) limits are not enforced.
+ */
+@Value
+@Builder
+class SnapshotBudget {
+
+    static final SnapshotBudget UNLIMITED = SnapshotBudget.builder().build();
+
+    private static final int STRING_BYTES = 24 + MemoryEstimated.ARRAY_HEADER_BYTES;
+    private static final int BOXED_BYTES = 16;
+
+    Integer maxElements;
+    Long maxEstimatedBytes;
+    Double maxSizeChangeRatio;
+    ToLongFunction<Object> elementBytes;
+
+    /**
+     * Verifies the number of elements fetched, before a snapshot is built out of them.
+     * @throws SnapshotRejectedException if more elements were fetched than allowed
+     */
+    void verifyFetched(int fetchedElements) {
+        if (maxElements != null && fetchedElements > maxElements) {
+            throw new SnapshotRejectedException("fetched " + fetchedElements + " elements, over the max of " + maxElements);
+        }
+    }
+
+    /**
+     * @return the given fetched elements, with their number verified as they are iterated - failing as soon as more
+     *         elements were fetched than allowed, rather than once all were
+     */
+    <E> Iterator<E> verifyFetched(Iterator<E> fetchedElements) {
+        if (maxElements == null) {
+            return fetchedElements;
+        }
+        return new Iterator<>() {
+            private int fetched;
+
+            @Override
+            public boolean hasNext() {
+                return fetchedElements.hasNext();
+            }
+
+            @Override
+            public E next() {
+                var element = fetchedElements.next();
+                verifyFetched(++fetched);
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Verifies a snapshot about to replace the given previous one.
+     * @return the estimated bytes of the verified snapshot - or -1 if not estimated, with no max estimated bytes set
+     * @throws SnapshotRejectedException if the snapshot exceeds any of the limits
+     */
+    long verify(Collection<?> previous, Collection<?> snapshot) {
+        int size = snapshot.size();
+        verifyFetched(size);
+        if (maxSizeChangeRatio != null && !previous.isEmpty()) {
+            double ratio = size == 0 ? Double.POSITIVE_INFINITY
+                    : (double) Math.max(size, previous.size()) / Math.min(size, previous.size());
+            if (ratio > maxSizeChangeRatio) {
+                throw new SnapshotRejectedException("snapshot of " + size + " elements replacing " + previous.size()
+                        + " changes size by more than the max ratio of " + maxSizeChangeRatio);
+            }
+        }
+        if (maxEstimatedBytes == null) {
+            return -1;
+        }
+        long bytes = estimatedBytesOf(snapshot);
+        if (bytes > maxEstimatedBytes) {
+            throw new SnapshotRejectedException("snapshot of an estimated " + bytes + " bytes, over the max of "
+                    + maxEstimatedBytes);
+        }
+        return bytes;
+    }
+
+    long estimatedBytesOf(Collection<?> snapshot) {
+        return MemoryEstimated.estimatedBytesOf(snapshot,
+                Optional.ofNullable(elementBytes).orElse(SnapshotBudget::defaultElementBytes));
+    }
+
+    /**
+     * Estimates strings by their length - assuming single byte characters - and boxed primitives by their size.
+     * Any other object is estimated by its header alone.
+     */
+    static long defaultElementBytes(Object element) {
+        if (element instanceof String) {
+            return align(STRING_BYTES + ((String) element).length());
+        }
+        return element instanceof Number ? BOXED_BYTES : MemoryEstimated.OBJECT_HEADER_BYTES;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+}
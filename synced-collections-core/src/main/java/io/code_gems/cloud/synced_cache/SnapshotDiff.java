@@ -0,0 +1,78 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the changes between two snapshots, probing each snapshot's own lookup for the elements of the other - in
+ * linear time, with no copies, for snapshots with a constant or logarithmic-time {@code contains}. Otherwise, a single
+ * snapshot is copied into a hash table: the unindexed one, or the previous one when neither is indexed - marking the
+ * elements found in the next one.
+ */
+final class SnapshotDiff {
+
+    private SnapshotDiff() {
+    }
+
+    /**
+     * @return the elements of {@code next} absent from {@code previous} as added, and those of {@code previous}
+     *         absent from {@code next} as removed
+     */
+    static <E> SyncDelta<E> between(Collection<E> previous, Collection<E> next, long version) {
+        if (!hasIndexedLookup(previous) && !hasIndexedLookup(next)) {
+            return unindexedBetween(previous, next, version);
+        }
+        return SyncDelta.of(absentFrom(next, lookupOf(previous)), absentFrom(previous, lookupOf(next)), version);
+    }
+
+    private static <E> SyncDelta<E> unindexedBetween(Collection<E> previous, Collection<E> next, long version) {
+        Map<Object, Boolean> foundInNext = new HashMap<>();
+        for (E element : previous) {
+            foundInNext.put(element, Boolean.FALSE);
+        }
+        var added = new ArrayList<E>();
+        for (E element : next) {
+            if (foundInNext.replace(element, Boolean.TRUE) == null) {
+                added.add(element);
+            }
+        }
+        var removed = new ArrayList<E>();
+        for (E element : previous) {
+            if (!foundInNext.get(element)) {
+                removed.add(element);
+            }
+        }
+        return SyncDelta.of(added, removed, version);
+    }
+
+    private static <E> List<E> absentFrom(Collection<E> elements, Collection<?> lookup) {
+        var absent = new ArrayList<E>();
+        for (E element : elements) {
+            if (!lookup.contains(element)) {
+                absent.add(element);
+            }
+        }
+        return absent;
+    }
+
+    private static Collection<?> lookupOf(Collection<?> snapshot) {
+        return hasIndexedLookup(snapshot) ? snapshot : new HashSet<>(snapshot);
+    }
+
+    static boolean hasIndexedLookup(Collection<?> snapshot) {
+        if (snapshot instanceof BloomFilteredCollection) {
+            return hasIndexedLookup(((BloomFilteredCollection<?>) snapshot).getSnapshot());
+        }
+        if (snapshot instanceof SecondaryIndexedCollection) {
+            return hasIndexedLookup(((SecondaryIndexedCollection<?>) snapshot).getSnapshot());
+        }
+        return snapshot instanceof Set || snapshot instanceof IndexedCollection || snapshot instanceof FrontCodedStringSet
+                || snapshot instanceof OffHeapCollection;
+    }
+
+}
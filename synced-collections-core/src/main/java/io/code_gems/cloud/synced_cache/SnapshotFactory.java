@@ -0,0 +1,136 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+/**
+ * Creates the immutable snapshot a {@link SyncedCollection} serves reads from, out of the collection
+ * returned by a {@link SyncCollectionSupplier}.
+ * <p>
+ *      A factory is invoked once per successful sync, on the sync thread, and the resulting snapshot replaces the
+ *      previous one as a whole. Returned snapshots must not be modified afterwards.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+@FunctionalInterface
+public interface SnapshotFactory<E> {
+
+    Collection<E> create(Collection<E> elements);
+
+    /**
+     * Creates a snapshot out of elements consumed one by one, e.g. from a {@link StreamingSyncCollectionSupplier}.
+     * A non-negative size hint may be used to presize the snapshot. By default, elements are first collected
+     * into a list.
+     */
+    default Collection<E> create(Iterator<? extends E> elements, int sizeHint) {
+        var collected = new ArrayList<E>(Math.max(sizeHint, 0));
+        elements.forEachRemaining(collected::add);
+        return create(collected);
+    }
+
+    /**
+     * Wraps the supplied collection as is - lookup costs are those of the supplied collection type.
+     */
+    static <E> SnapshotFactory<E> unmodifiable() {
+        return Collections::unmodifiableCollection;
+    }
+
+    /**
+     * Copies the supplied collection into a read-optimized hash table, making {@code contains} constant-time
+     * regardless of the supplied collection type. Iteration order of the supplied collection is kept.
+     */
+    static <E> SnapshotFactory<E> indexed() {
+        return new SnapshotFactory<>() {
+            @Override
+            public Collection<E> create(Collection<E> elements) {
+                return new IndexedCollection<>(elements);
+            }
+
+            @Override
+            public Collection<E> create(Iterator<? extends E> elements, int sizeHint) {
+                return new IndexedCollection<>(elements, sizeHint);
+            }
+        };
+    }
+
+    /**
+     * Like {@link #indexed()}, building each snapshot with parallel tasks on the given pool - cutting the build time of
+     * collections of millions of elements by about the pool's parallelism. Small collections are indexed sequentially.
+     */
+    static <E> SnapshotFactory<E> indexed(ForkJoinPool pool) {
+        Objects.requireNonNull(pool, "ForkJoinPool must be provided");
+        return elements -> IndexedCollection.inParallel(elements, pool);
+    }
+
+    /**
+     * Copies the supplied strings into a compact, sorted and front-coded byte array - storing the prefix each string
+     * shares with its predecessor only once. Suited for large sets of URLs, domains or ids sharing long prefixes.
+     * Iteration is in {@link String#compareTo} order, duplicates are dropped, and null elements are not supported.
+     * @see SyncedStringSet
+     */
+    static SnapshotFactory<String> frontCoded() {
+        return FrontCodedStringSet::new;
+    }
+
+    /**
+     * Serializes the supplied collection into direct memory, outside the Java heap, using the given codec.
+     * Lookups compare encoded elements in place; iteration decodes elements. Null elements are not supported.
+     */
+    static <E> SnapshotFactory<E> offHeap(ElementCodec<E> codec) {
+        return encodedWith(codec, ByteBuffer::allocateDirect);
+    }
+
+    /**
+     * Like {@link #offHeap(ElementCodec)}, serializing the supplied collection into a memory-mapped temporary file
+     * in the given directory instead - letting the OS page the snapshot in and out as needed.
+     */
+    static <E> SnapshotFactory<E> memoryMapped(ElementCodec<E> codec, Path directory) {
+        return encodedWith(codec, OffHeapCollection.mappedFileAllocator(directory));
+    }
+
+    /**
+     * Fronts each snapshot created by the given factory with a Bloom filter built alongside it, at the given
+     * false positive rate (e.g. {@code 0.01}) - answering most {@code contains} misses from a compact bit array,
+     * without touching the snapshot itself. Suited for collections looked up mostly for absent elements.
+     */
+    static <E> SnapshotFactory<E> bloomFiltered(SnapshotFactory<E> snapshotFactory, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be in the range (0, 1): " + falsePositiveRate);
+        }
+        return new SnapshotFactory<>() {
+            @Override
+            public Collection<E> create(Collection<E> elements) {
+                return new BloomFilteredCollection<>(snapshotFactory.create(elements), elements, elements.size(),
+                        falsePositiveRate);
+            }
+
+            @Override
+            public Collection<E> create(Iterator<? extends E> elements, int sizeHint) {
+                var snapshot = snapshotFactory.create(elements, sizeHint);
+                return new BloomFilteredCollection<>(snapshot, snapshot, snapshot.size(), falsePositiveRate);
+            }
+        };
+    }
+
+    private static <E> SnapshotFactory<E> encodedWith(ElementCodec<E> codec, IntFunction<ByteBuffer> allocator) {
+        return new SnapshotFactory<>() {
+            @Override
+            public Collection<E> create(Collection<E> elements) {
+                return new OffHeapCollection<>(elements, codec, allocator);
+            }
+
+            @Override
+            public Collection<E> create(Iterator<? extends E> elements, int sizeHint) {
+                return new OffHeapCollection<>(elements, sizeHint, codec, allocator);
+            }
+        };
+    }
+
+}
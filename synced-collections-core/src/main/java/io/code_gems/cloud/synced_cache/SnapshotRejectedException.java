@@ -0,0 +1,13 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * Fails a sync whose fetched snapshot exceeds the memory budget of the synced collection, or breaks a unique index of
+ * it - the previous snapshot is kept in place, and the sync counts as a failed one.
+ */
+public class SnapshotRejectedException extends RuntimeException {
+
+    public SnapshotRejectedException(String message) {
+        super(message);
+    }
+
+}
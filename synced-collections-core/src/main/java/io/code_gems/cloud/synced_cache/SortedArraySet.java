@@ -0,0 +1,310 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An immutable NavigableSet backed by a sorted array of distinct elements.
+ * <p>
+ *      Navigation methods ({@code floor}, {@code ceiling}, ...) binary search the array, and range views
+ *      ({@code subSet}, {@code headSet}, {@code tailSet}) share it - none copies any elements. Bounds outside a view's
+ *      range are clamped to it. Only {@link #descendingSet()} copies the viewed elements, into reverse order.
+ * </p>
+ * <p>
+ *      Elements are ordered by the given comparator, or by their natural ordering when none is given - elements
+ *      comparing as equal are kept once. Large collections are sorted in parallel, on the common pool. Null elements
+ *      are not supported.
+ * </p>
+ * @param <E> the type of the Set elements
+ */
+final class SortedArraySet<E> extends ReadOnlyCollection<E> implements NavigableSet<E> {
+
+    private static final int MIN_PARALLEL_SIZE = 1 << 16;
+
+    private final Object[] elements;
+    private final int from;
+    private final int to;
+    private final Comparator<? super E> comparator;
+
+    @SuppressWarnings("unchecked")
+    SortedArraySet(Collection<? extends E> source, Comparator<? super E> comparator) {
+        Object[] sorted = source.toArray();
+        for (Object element : sorted) {
+            Objects.requireNonNull(element, "null elements are not supported");
+        }
+        var order = (Comparator<Object>) comparatorOrNatural(comparator);
+        // large collections are sorted on the common pool - small ones on the calling thread, sparing the task overhead
+        if (sorted.length < MIN_PARALLEL_SIZE) {
+            Arrays.sort(sorted, order);
+        } else {
+            Arrays.parallelSort(sorted, order);
+        }
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || compare(comparator, sorted[distinct - 1], sorted[i]) != 0) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        this.elements = distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+        this.from = 0;
+        this.to = distinct;
+        this.comparator = comparator;
+    }
+
+    private SortedArraySet(Object[] elements, int from, int to, Comparator<? super E> comparator) {
+        this.elements = elements;
+        this.from = from;
+        this.to = Math.max(from, to);
+        this.comparator = comparator;
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        try {
+            return search(o) >= 0;
+        } catch (ClassCastException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public E lower(E e) {
+        return elementAtOrNull(lowerIndex(e));
+    }
+
+    @Override
+    public E floor(E e) {
+        return elementAtOrNull(floorIndex(e));
+    }
+
+    @Override
+    public E ceiling(E e) {
+        return elementAtOrNull(ceilingIndex(e));
+    }
+
+    @Override
+    public E higher(E e) {
+        return elementAtOrNull(higherIndex(e));
+    }
+
+    @Override
+    public E first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return elementAt(from);
+    }
+
+    @Override
+    public E last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return elementAt(to - 1);
+    }
+
+    @Override
+    public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        if (compare(comparator, fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+        return new SortedArraySet<>(elements, fromIndex(fromElement, fromInclusive), toIndex(toElement, toInclusive),
+                comparator);
+    }
+
+    @Override
+    public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+        return new SortedArraySet<>(elements, from, toIndex(toElement, inclusive), comparator);
+    }
+
+    @Override
+    public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+        return new SortedArraySet<>(elements, fromIndex(fromElement, inclusive), to, comparator);
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public NavigableSet<E> descendingSet() {
+        Object[] reversed = new Object[size()];
+        for (int i = 0; i < reversed.length; i++) {
+            reversed[i] = elements[to - 1 - i];
+        }
+        return new SortedArraySet<>(reversed, 0, reversed.length, Collections.reverseOrder(comparator));
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public E next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                return elementAt(next++);
+            }
+        };
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new Iterator<>() {
+            private int next = to - 1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= from;
+            }
+
+            @Override
+            public E next() {
+                if (next < from) {
+                    throw new NoSuchElementException();
+                }
+                return elementAt(next--);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for (int i = from; i < to; i++) {
+            action.accept(elementAt(i));
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        // a SORTED array spliterator reports the natural order - so only claimed when that is the order
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        return Spliterators.spliterator(elements, from, to,
+                comparator == null ? characteristics | Spliterator.SORTED : characteristics);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Set)) {
+            return false;
+        }
+        var other = (Set<?>) o;
+        return other.size() == size() && containsAll(other);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash += elements[i].hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public E pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E pollLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int search(Object key) {
+        return Arrays.binarySearch(elements, from, to, key, (Comparator<Object>) comparatorOrNatural(comparator));
+    }
+
+    private int lowerIndex(E e) {
+        int i = search(e);
+        return i >= 0 ? i - 1 : -i - 2;
+    }
+
+    private int floorIndex(E e) {
+        int i = search(e);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private int ceilingIndex(E e) {
+        int i = search(e);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private int higherIndex(E e) {
+        int i = search(e);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private int fromIndex(E fromElement, boolean inclusive) {
+        return inclusive ? ceilingIndex(fromElement) : higherIndex(fromElement);
+    }
+
+    private int toIndex(E toElement, boolean inclusive) {
+        return (inclusive ? floorIndex(toElement) : lowerIndex(toElement)) + 1;
+    }
+
+    private E elementAtOrNull(int index) {
+        return index >= from && index < to ? elementAt(index) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int index) {
+        return (E) elements[index];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<?> comparatorOrNatural(Comparator<?> comparator) {
+        return comparator != null ? comparator : (Comparator) Comparator.naturalOrder();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparator<?> comparator, Object a, Object b) {
+        return ((Comparator<Object>) comparatorOrNatural(comparator)).compare(a, b);
+    }
+
+}
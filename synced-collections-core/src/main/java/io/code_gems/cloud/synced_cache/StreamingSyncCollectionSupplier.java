@@ -0,0 +1,37 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A {@link SyncCollectionSupplier} streaming the backing collection, rather than materializing it first - letting the
+ * synced collection build its next snapshot element by element, as they are fetched.
+ * <p>
+ *      The stream is consumed on the sync thread and closed once consumed, so it may be backed by a DB cursor or by
+ *      paged fetches - e.g. {@code Stream.iterate(firstPage, Page::hasNext, Page::next).flatMap(Page::stream)} - as well as
+ *      by any {@link java.util.Iterator}, through {@link java.util.Spliterators#spliteratorUnknownSize}.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+public interface StreamingSyncCollectionSupplier<E> extends SyncCollectionSupplier<E> {
+
+    int UNKNOWN_SIZE = -1;
+
+    Stream<E> stream();
+
+    /**
+     * The expected number of streamed elements, used to presize the next snapshot - or {@link #UNKNOWN_SIZE}.
+     */
+    default int sizeHint() {
+        return UNKNOWN_SIZE;
+    }
+
+    @Override
+    default Collection<E> get() {
+        try (var elements = stream()) {
+            return elements.collect(Collectors.toList());
+        }
+    }
+
+}
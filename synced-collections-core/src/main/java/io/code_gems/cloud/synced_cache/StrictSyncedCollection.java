@@ -3,74 +3,77 @@ package io.code_gems.cloud.synced_cache;
 import lombok.AccessLevel;
 import lombok.Builder;
 
-import java.time.Duration;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Spliterator;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 public class StrictSyncedCollection<E> extends InMemSyncedCollection<E> {
 
     @Builder(access = AccessLevel.PACKAGE)
-    StrictSyncedCollection(SyncCollectionSupplier<E> syncCollectionSupplier, Duration interval,
-                           Collection<E> initialCollection, ScheduledExecutorService scheduler,
-                           Integer maxAllowedNoSyncIntervals) {
-        super(syncCollectionSupplier, interval, initialCollection, scheduler, maxAllowedNoSyncIntervals);
+    StrictSyncedCollection(SyncOptions syncOptions, SyncCollectionSupplier<E> syncCollectionSupplier,
+                           Collection<E> initialCollection, CollectionSyncOptions<E> collectionSyncOptions) {
+        super(syncOptions, syncCollectionSupplier, initialCollection, collectionSyncOptions);
+    }
+
+    @Override
+    public SyncedSnapshot<E> snapshot() {
+        return new ImmutableSyncedSnapshot<>(verifiedState());
+    }
+
+    @Override
+    public List<E> lookup(String indexName, Object key) {
+        verifySynced();
+        return super.lookup(indexName, key);
     }
 
     @Override
     public boolean contains(Object o) {
-        verifyCollectionIsSynced();
+        verifySynced();
         return super.contains(o);
     }
 
     @Override
     public boolean containsAll(Collection<?> c) {
-        verifyCollectionIsSynced();
+        verifySynced();
         return super.containsAll(c);
     }
 
     @Override
     public int size() {
-        verifyCollectionIsSynced();
+        verifySynced();
         return super.size();
     }
 
     @Override
     public boolean isEmpty() {
-        verifyCollectionIsSynced();
+        verifySynced();
         return super.isEmpty();
     }
 
     @Override
     public Iterator<E> iterator() {
-        verifyCollectionIsSynced();
+        verifySynced();
         return super.iterator();
     }
 
     @Override
     public Stream<E> stream() {
-        verifyCollectionIsSynced();
+        verifySynced();
         return super.stream();
     }
 
     @Override
     public Spliterator<E> spliterator() {
-        verifyCollectionIsSynced();
+        verifySynced();
         return super.spliterator();
     }
 
     @Override
     public void forEach(Consumer<? super E> action) {
-        verifyCollectionIsSynced();
+        verifySynced();
         super.forEach(action);
     }
-
-    private void verifyCollectionIsSynced() {
-        if (!isSynced()) {
-            throw new OutOfSyncException();
-        }
-    }
 }
@@ -0,0 +1,51 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class StrictSyncedIntSet extends InMemSyncedIntSet {
+
+    @Builder(access = AccessLevel.PACKAGE)
+    StrictSyncedIntSet(SyncOptions syncOptions, SyncIntSetSupplier syncIntSetSupplier, int[] initialValues) {
+        super(syncOptions, syncIntSetSupplier, initialValues);
+    }
+
+    @Override
+    public boolean contains(int value) {
+        verifySynced();
+        return super.contains(value);
+    }
+
+    @Override
+    public int size() {
+        verifySynced();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        verifySynced();
+        return super.isEmpty();
+    }
+
+    @Override
+    public int[] toArray() {
+        verifySynced();
+        return super.toArray();
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        verifySynced();
+        super.forEach(action);
+    }
+
+    @Override
+    public IntStream stream() {
+        verifySynced();
+        return super.stream();
+    }
+}
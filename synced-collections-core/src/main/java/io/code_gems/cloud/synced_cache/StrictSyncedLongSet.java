@@ -0,0 +1,51 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+public class StrictSyncedLongSet extends InMemSyncedLongSet {
+
+    @Builder(access = AccessLevel.PACKAGE)
+    StrictSyncedLongSet(SyncOptions syncOptions, SyncLongSetSupplier syncLongSetSupplier, long[] initialValues) {
+        super(syncOptions, syncLongSetSupplier, initialValues);
+    }
+
+    @Override
+    public boolean contains(long value) {
+        verifySynced();
+        return super.contains(value);
+    }
+
+    @Override
+    public int size() {
+        verifySynced();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        verifySynced();
+        return super.isEmpty();
+    }
+
+    @Override
+    public long[] toArray() {
+        verifySynced();
+        return super.toArray();
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        verifySynced();
+        super.forEach(action);
+    }
+
+    @Override
+    public LongStream stream() {
+        verifySynced();
+        return super.stream();
+    }
+}
@@ -0,0 +1,77 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+public class StrictSyncedMap<K, V> extends InMemSyncedMap<K, V> {
+
+    @Builder(access = AccessLevel.PACKAGE)
+    StrictSyncedMap(SyncOptions syncOptions, SyncMapSupplier<K, V> syncMapSupplier, Map<K, V> initialMap) {
+        super(syncOptions, syncMapSupplier, initialMap);
+    }
+
+    @Override
+    public int size() {
+        verifySynced();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        verifySynced();
+        return super.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        verifySynced();
+        return super.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        verifySynced();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+        verifySynced();
+        return super.get(key);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        verifySynced();
+        return super.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        verifySynced();
+        return super.keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        verifySynced();
+        return super.values();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        verifySynced();
+        return super.entrySet();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        verifySynced();
+        super.forEach(action);
+    }
+}
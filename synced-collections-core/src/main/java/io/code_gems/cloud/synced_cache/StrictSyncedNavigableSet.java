@@ -0,0 +1,154 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class StrictSyncedNavigableSet<E> extends InMemSyncedNavigableSet<E> {
+
+    @Builder(access = AccessLevel.PACKAGE)
+    StrictSyncedNavigableSet(SyncOptions syncOptions, SyncCollectionSupplier<E> syncCollectionSupplier,
+                             Comparator<? super E> comparator, Collection<E> initialElements) {
+        super(syncOptions, syncCollectionSupplier, comparator, initialElements);
+    }
+
+    @Override
+    public int size() {
+        verifySynced();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        verifySynced();
+        return super.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        verifySynced();
+        return super.contains(o);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        verifySynced();
+        return super.containsAll(c);
+    }
+
+    @Override
+    public E lower(E e) {
+        verifySynced();
+        return super.lower(e);
+    }
+
+    @Override
+    public E floor(E e) {
+        verifySynced();
+        return super.floor(e);
+    }
+
+    @Override
+    public E ceiling(E e) {
+        verifySynced();
+        return super.ceiling(e);
+    }
+
+    @Override
+    public E higher(E e) {
+        verifySynced();
+        return super.higher(e);
+    }
+
+    @Override
+    public E first() {
+        verifySynced();
+        return super.first();
+    }
+
+    @Override
+    public E last() {
+        verifySynced();
+        return super.last();
+    }
+
+    @Override
+    public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        verifySynced();
+        return super.subSet(fromElement, fromInclusive, toElement, toInclusive);
+    }
+
+    @Override
+    public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+        verifySynced();
+        return super.headSet(toElement, inclusive);
+    }
+
+    @Override
+    public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+        verifySynced();
+        return super.tailSet(fromElement, inclusive);
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        verifySynced();
+        return super.subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        verifySynced();
+        return super.headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        verifySynced();
+        return super.tailSet(fromElement);
+    }
+
+    @Override
+    public NavigableSet<E> descendingSet() {
+        verifySynced();
+        return super.descendingSet();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        verifySynced();
+        return super.iterator();
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        verifySynced();
+        return super.descendingIterator();
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        verifySynced();
+        return super.spliterator();
+    }
+
+    @Override
+    public Stream<E> stream() {
+        verifySynced();
+        return super.stream();
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        verifySynced();
+        super.forEach(action);
+    }
+}
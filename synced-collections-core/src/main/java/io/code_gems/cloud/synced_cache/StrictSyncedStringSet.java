@@ -0,0 +1,34 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A <b>read-only</b>, sorted set of strings, synced with a backing collection of strings.
+ * <p>
+ *      Each sync copies the supplied strings into an immutable, front-coded snapshot (see
+ *      {@link SnapshotFactory#frontCoded()}), replacing the previous one as a whole.
+ * </p>
+ */
+public class StrictSyncedStringSet extends StrictSyncedCollection<String> implements SyncedStringSet {
+
+    @Builder(builderMethodName = "stringSetBuilder", access = AccessLevel.PACKAGE)
+    StrictSyncedStringSet(SyncOptions syncOptions, SyncCollectionSupplier<String> syncCollectionSupplier,
+                          Collection<String> initialStrings, List<SecondaryIndex<String>> indexes) {
+        super(syncOptions, syncCollectionSupplier, initialStrings, CollectionSyncOptions.<String>builder()
+                .snapshotFactory(indexes == null || indexes.isEmpty()
+                        ? SnapshotFactory.frontCoded()
+                        : SecondaryIndexedCollection.indexedBy(SnapshotFactory.frontCoded(), indexes))
+                .build());
+    }
+
+    @Override
+    public Stream<String> withPrefix(String prefix) {
+        verifySynced();
+        return ((FrontCodedStringSet) SecondaryIndexedCollection.unwrap(currentSnapshot())).withPrefix(prefix);
+    }
+}
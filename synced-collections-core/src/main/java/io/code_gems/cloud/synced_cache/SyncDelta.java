@@ -0,0 +1,49 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * The changes of a backing collection since a given version, as returned by an {@link IncrementalSyncCollectionSupplier}.
+ * <p>
+ *      A <i>full</i> delta carries the whole backing collection in {@link #getAdded()}, and replaces the synced snapshot
+ *      altogether. Otherwise, {@link #getRemoved()} elements are removed from the synced snapshot and then
+ *      {@link #getAdded()} elements are added to it.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SyncDelta<E> {
+
+    /**
+     * The version an {@link IncrementalSyncCollectionSupplier} is asked for changes since, when a full delta is required.
+     */
+    public static final long NO_VERSION = -1;
+
+    boolean full;
+    Collection<E> added;
+    Collection<E> removed;
+    long version;
+
+    public static <E> SyncDelta<E> full(Collection<E> elements, long version) {
+        return new SyncDelta<>(true, elements, Collections.emptyList(), version);
+    }
+
+    public static <E> SyncDelta<E> of(Collection<E> added, Collection<E> removed, long version) {
+        return new SyncDelta<>(false, added, removed, version);
+    }
+
+    public static <E> SyncDelta<E> unchanged(long version) {
+        return of(Collections.emptyList(), Collections.emptyList(), version);
+    }
+
+    public boolean isEmpty() {
+        return !full && added.isEmpty() && removed.isEmpty();
+    }
+
+}
@@ -0,0 +1,8 @@
+package io.code_gems.cloud.synced_cache;
+
+@FunctionalInterface
+public interface SyncIntSetSupplier {
+
+    int[] get();
+
+}
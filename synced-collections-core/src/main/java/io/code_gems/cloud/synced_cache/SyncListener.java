@@ -0,0 +1,38 @@
+package io.code_gems.cloud.synced_cache;
+
+/**
+ * Notified of the outcome of each sync of a synced structure, and of each read rejected as out of sync.
+ * <p>
+ *      Sync notifications are delivered on the sync thread, and {@link #onOutOfSync()} on the reading thread -
+ *      implementations should be cheap and thread-safe. All methods do nothing by default.
+ * </p>
+ * @see SyncMetrics
+ */
+public interface SyncListener {
+
+    /**
+     * The listener used unless set otherwise, ignoring all notifications.
+     */
+    SyncListener NO_OP = new SyncListener() {
+    };
+
+    /**
+     * Invoked after each successful sync, once the fetched snapshot is in place.
+     */
+    default void onSyncSucceeded(SyncStats stats) {
+    }
+
+    /**
+     * Invoked after each failed sync.
+     * @param consecutiveFailures the number of syncs failed in a row, this one included
+     */
+    default void onSyncFailed(Exception cause, int consecutiveFailures) {
+    }
+
+    /**
+     * Invoked whenever a read of a strict synced structure throws {@link OutOfSyncException}.
+     */
+    default void onOutOfSync() {
+    }
+
+}
@@ -0,0 +1,10 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Map;
+
+@FunctionalInterface
+public interface SyncMapSupplier<K, V> {
+
+    Map<K, V> get();
+
+}
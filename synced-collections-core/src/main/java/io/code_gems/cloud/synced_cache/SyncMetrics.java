@@ -0,0 +1,136 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link SyncListener} keeping cheap, lock-free metrics of the syncs of a synced structure - to be polled and
+ * exported to any monitoring system.
+ * <p>
+ *      Fetch latencies are kept in a histogram of power-of-two nanosecond buckets: bucket {@code i} counts the
+ *      fetches that took {@code [2^i, 2^(i+1))} nanoseconds.
+ * </p>
+ */
+public final class SyncMetrics implements SyncListener {
+
+    private static final int HISTOGRAM_BUCKETS = Long.SIZE;
+
+    private final LongAdder syncSuccesses = new LongAdder();
+    private final LongAdder syncFailures = new LongAdder();
+    private final LongAdder outOfSyncReads = new LongAdder();
+    private final AtomicLongArray fetchLatencyHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+    private final long createdNanos = System.nanoTime();
+    private volatile long lastSuccessNanos = createdNanos;
+    private volatile int consecutiveFailures;
+    private volatile int snapshotSize;
+    private volatile long lastFetchNanos;
+    private volatile long lastBuildNanos;
+
+    @Override
+    public void onSyncSucceeded(SyncStats stats) {
+        lastSuccessNanos = System.nanoTime();
+        syncSuccesses.increment();
+        consecutiveFailures = 0;
+        snapshotSize = stats.getSnapshotSize();
+        lastFetchNanos = stats.getFetchTime().toNanos();
+        lastBuildNanos = stats.getBuildTime().toNanos();
+        fetchLatencyHistogram.incrementAndGet(bucketOf(lastFetchNanos));
+    }
+
+    @Override
+    public void onSyncFailed(Exception cause, int consecutiveFailures) {
+        syncFailures.increment();
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    @Override
+    public void onOutOfSync() {
+        outOfSyncReads.increment();
+    }
+
+    public long getSyncSuccesses() {
+        return syncSuccesses.sum();
+    }
+
+    public long getSyncFailures() {
+        return syncFailures.sum();
+    }
+
+    /**
+     * The number of syncs failed since the last successful one.
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * The number of reads that threw {@link OutOfSyncException}.
+     */
+    public long getOutOfSyncReads() {
+        return outOfSyncReads.sum();
+    }
+
+    /**
+     * The time elapsed since the last successful sync - or since these metrics were created, if none succeeded yet.
+     */
+    public Duration getStaleness() {
+        return Duration.ofNanos(System.nanoTime() - lastSuccessNanos);
+    }
+
+    /**
+     * The size of the snapshot in place after the last successful sync.
+     */
+    public int getSnapshotSize() {
+        return snapshotSize;
+    }
+
+    public Duration getLastFetchTime() {
+        return Duration.ofNanos(lastFetchNanos);
+    }
+
+    public Duration getLastBuildTime() {
+        return Duration.ofNanos(lastBuildNanos);
+    }
+
+    /**
+     * A copy of the fetch latency histogram, indexed by power-of-two bucket.
+     */
+    public long[] getFetchLatencyHistogram() {
+        var histogram = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = fetchLatencyHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    /**
+     * An upper bound of the given fetch latency percentile, accurate to a factor of two.
+     * @param percentile in the range (0, 100]
+     * @return the upper bound of the bucket the percentile falls in, or zero if no sync succeeded yet
+     */
+    public Duration getFetchLatencyPercentile(double percentile) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("percentile must be in the range (0, 100]: " + percentile);
+        }
+        long[] histogram = getFetchLatencyHistogram();
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS && total > 0; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(i >= HISTOGRAM_BUCKETS - 2 ? Long.MAX_VALUE : (1L << (i + 1)) - 1);
+            }
+        }
+        return Duration.ZERO;
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : HISTOGRAM_BUCKETS - 1 - Long.numberOfLeadingZeros(nanos);
+    }
+
+}
@@ -0,0 +1,23 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Options of the sync process shared by all synced structures. Unset (null) options fall back to their defaults.
+ */
+@Value
+@Builder(toBuilder = true)
+class SyncOptions {
+
+    Duration interval;
+    Integer maxAllowedNoSyncIntervals;
+    SyncScheduler syncScheduler;
+    Duration jitter;
+    Integer priority;
+    SyncListener listener;
+    Duration minRefreshGap;
+
+}
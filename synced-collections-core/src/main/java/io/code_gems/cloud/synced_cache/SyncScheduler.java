@@ -0,0 +1,213 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the periodic syncs of any number of synced structures on a small, shared pool of threads.
+ * <p>
+ *      A single timer thread triggers each registered sync once its interval - plus a random jitter, spreading syncs
+ *      that would otherwise fire at the same moment - elapses since its previous run. Triggered syncs run on at most
+ *      {@code maxConcurrentSyncs} worker threads; when all are busy, pending syncs run by descending priority.
+ * </p>
+ * <p>
+ *      Unless set otherwise, synced structures use the {@link #shared()} scheduler. Dedicated schedulers should be
+ *      {@link #close() closed} once no longer needed.
+ * </p>
+ */
+public final class SyncScheduler implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_CONCURRENT_SYNCS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final ScheduledExecutorService timer;
+    private final ThreadPoolExecutor workers;
+    private final AtomicLong sequence = new AtomicLong();
+    private final boolean shared;
+
+    /**
+     * @param maxConcurrentSyncs the max number of syncs running at the same time. Defaults to the number of processors.
+     * @param threadFactory      creates the worker threads running the syncs - e.g. virtual threads, where available.
+     *                           Defaults to daemon platform threads.
+     */
+    @Builder
+    private SyncScheduler(Integer maxConcurrentSyncs, ThreadFactory threadFactory) {
+        this(maxConcurrentSyncs, threadFactory, false);
+    }
+
+    private SyncScheduler(Integer maxConcurrentSyncs, ThreadFactory threadFactory, boolean shared) {
+        int workerCount = Optional.ofNullable(maxConcurrentSyncs).orElse(DEFAULT_MAX_CONCURRENT_SYNCS);
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("maxConcurrentSyncs must be positive: " + workerCount);
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("synced-collections-timer"));
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                Optional.ofNullable(threadFactory).orElseGet(() -> daemonThreadFactory("synced-collections-sync")));
+        this.shared = shared;
+    }
+
+    /**
+     * The scheduler used by all synced structures not set with a dedicated one. Its threads are daemon threads,
+     * living as long as the JVM does - closing it has no effect.
+     */
+    public static SyncScheduler shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Stops all syncs, and the scheduler threads. Syncs in progress are interrupted.
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            return;
+        }
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    Registration schedule(Runnable sync, Duration interval, Duration jitter, int priority) {
+        var registration = new Registration(sync, interval.toNanos(), jitter.toNanos(), priority);
+        registration.scheduleNext(registration.jitterNanos());
+        return registration;
+    }
+
+    /**
+     * Runs the given sync once, after the given delay, on the worker threads - alongside the periodic syncs.
+     * @return completed once the sync ran, or exceptionally if the scheduler was closed first
+     */
+    CompletableFuture<Void> runOnce(Runnable sync, Duration delay, int priority) {
+        var ran = new CompletableFuture<Void>();
+        Runnable trigger = () -> {
+            try {
+                workers.execute(new PrioritizedSync(priority, sequence.incrementAndGet(), () -> {
+                    try {
+                        sync.run();
+                        ran.complete(null);
+                    } catch (RuntimeException e) {
+                        ran.completeExceptionally(e);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                ran.completeExceptionally(e);
+            }
+        };
+        try {
+            if (delay.isZero() || delay.isNegative()) {
+                trigger.run();
+            } else {
+                timer.schedule(trigger, delay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            ran.completeExceptionally(e);
+        }
+        return ran;
+    }
+
+    static ThreadFactory daemonThreadFactory(String namePrefix) {
+        var threadCount = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class SharedHolder {
+        private static final SyncScheduler INSTANCE = new SyncScheduler(null, null, true);
+    }
+
+    /**
+     * A sync registered with the scheduler, running periodically until {@link #cancel() cancelled}.
+     */
+    final class Registration {
+
+        private final Runnable sync;
+        private final long intervalNanos;
+        private final long maxJitterNanos;
+        private final int priority;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> next;
+
+        private Registration(Runnable sync, long intervalNanos, long maxJitterNanos, int priority) {
+            this.sync = sync;
+            this.intervalNanos = intervalNanos;
+            this.maxJitterNanos = maxJitterNanos;
+            this.priority = priority;
+        }
+
+        void cancel() {
+            cancelled = true;
+            var scheduled = next;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+
+        private void scheduleNext(long delayNanos) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                next = timer.schedule(this::trigger, delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // the scheduler is closed
+                cancelled = true;
+            }
+        }
+
+        private void trigger() {
+            try {
+                workers.execute(new PrioritizedSync(priority, sequence.incrementAndGet(), this::run));
+            } catch (RejectedExecutionException e) {
+                // the scheduler is closed
+                cancelled = true;
+            }
+        }
+
+        private void run() {
+            try {
+                if (!cancelled) {
+                    sync.run();
+                }
+            } finally {
+                scheduleNext(intervalNanos + jitterNanos());
+            }
+        }
+
+        private long jitterNanos() {
+            return maxJitterNanos > 0 ? ThreadLocalRandom.current().nextLong(maxJitterNanos + 1) : 0;
+        }
+    }
+
+    private static final class PrioritizedSync implements Runnable, Comparable<PrioritizedSync> {
+
+        private final int priority;
+        private final long sequence;
+        private final Runnable sync;
+
+        private PrioritizedSync(int priority, long sequence, Runnable sync) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.sync = sync;
+        }
+
+        @Override
+        public void run() {
+            sync.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedSync other) {
+            // higher priority first, then first triggered first
+            int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * The immutable state of a synced structure, published as a whole on each change - so that readers always observe
+ * a snapshot together with the sync status and version it was published with.
+ * @param <S> the type of the synced snapshot
+ */
+@Value
+class SyncState<S> {
+
+    S snapshot;
+    boolean synced;
+    /**
+     * The number of snapshots published before this one - the initial snapshot is version 0.
+     */
+    long version;
+    /**
+     * The time of the last successful sync - null if none succeeded yet.
+     */
+    Instant syncedAt;
+
+    SyncState<S> outOfSync() {
+        return synced ? new SyncState<>(snapshot, false, version, syncedAt) : this;
+    }
+
+}
@@ -0,0 +1,35 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Measurements of a single successful sync.
+ */
+@Value
+public class SyncStats {
+
+    /**
+     * The time spent fetching from the backing source. For streaming suppliers, elements are indexed as they are
+     * fetched - so this includes building the snapshot.
+     */
+    Duration fetchTime;
+
+    /**
+     * The time spent building the snapshot out of the fetched data - zero for streaming suppliers, as their build is
+     * part of the fetch time.
+     */
+    Duration buildTime;
+
+    /**
+     * The size of the snapshot in place after the sync.
+     */
+    int snapshotSize;
+
+    /**
+     * Whether the sync kept the previous snapshot in place, having no changes to apply.
+     */
+    boolean unchanged;
+
+}
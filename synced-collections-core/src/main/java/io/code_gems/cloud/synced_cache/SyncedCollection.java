@@ -1,22 +1,69 @@
 package io.code_gems.cloud.synced_cache;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * A <b>read-only</b> Collection, synced with a backing one.
  * Mainly intended as a fast, in-memory 'cache' layer to a remote, persistent and centralized collection.
  * <p>
  *      <b>Important: </b> any attempt to mutate or modify the Collection will throw an {@link UnsupportedOperationException}.
- *      {@link #startSync()} must be called once, post instantiation, in order to start the sync process.
+ *      {@link #startSync()} must be called once, post instantiation, in order to start the sync process,
+ *      and {@link #stopSync()} stops it.
  * </p>
  * @param <E> the type of the Collection elements
  */
 public interface SyncedCollection<E> extends Collection<E> {
 
     void startSync();
+    void stopSync();
     boolean isSynced();
 
+    /**
+     * Syncs as soon as possible, rather than waiting for the next periodic sync - sharing any sync already pending
+     * or in flight.
+     * @return completed with the version of the synced snapshot, or exceptionally with the sync failure
+     */
+    CompletableFuture<Long> refreshNow();
+
+    /**
+     * Takes an immutable view of the current snapshot, for reads consistent with each other - unaffected by syncs
+     * happening meanwhile, and with no per-read staleness checks.
+     * @throws OutOfSyncException if the collection is strict, and its current snapshot is out of sync
+     */
+    SyncedSnapshot<E> snapshot();
+
+    /**
+     * Looks up the elements of the current snapshot by the key extracted by a named index, in constant time.
+     * Indexes are defined on the builder, and rebuilt along with each snapshot.
+     * @return the elements indexed under the given key, in iteration order - empty if none
+     * @throws IllegalArgumentException if no index is defined by the given name
+     */
+    List<E> lookup(String indexName, Object key);
+
+    /**
+     * Estimates the memory footprint of the current snapshot, in bytes - its structure, plus its elements as estimated
+     * by the builder's element bytes estimator. Estimated once per snapshot.
+     */
+    long estimatedBytes();
+
+    /**
+     * Subscribes to the changes of each new snapshot - its added and removed elements, as a non-full {@link SyncDelta}
+     * of the new snapshot's version. Changes are computed and delivered off the sync thread, one snapshot at a time,
+     * in the order synced.
+     * @return a subscription, delivering changes until closed
+     */
+    ChangeFeed.Subscription subscribe(Consumer<SyncDelta<E>> subscriber);
+
     static <E> SyncedCollection<E> createAndSync(SyncCollectionSupplier<E> syncCollectionSupplier) {
         var collection = StrictSyncedCollection.<E>builder()
                 .syncCollectionSupplier(syncCollectionSupplier)
@@ -29,12 +76,24 @@ public interface SyncedCollection<E> extends Collection<E> {
         return new SyncedCollectionBuilder<>(syncCollectionSupplier);
     }
 
-    class SyncedCollectionBuilder<E> {
+    class SyncedCollectionBuilder<E> extends AbstractSyncedBuilder<SyncedCollectionBuilder<E>> {
+
+        private static final Duration SAFETY_RESYNC_INTERVAL = Duration.ofHours(1);
 
         private final SyncCollectionSupplier<E> syncCollectionSupplier;
         private Collection<E> initialCollection;
-        private Duration interval;
-        private Integer maxAllowedNoSyncIntervals;
+        private SnapshotFactory<E> snapshotFactory;
+        private Double bloomFilterFalsePositiveRate;
+        private final List<SecondaryIndex<E>> indexes = new ArrayList<>();
+        private Duration fullSyncInterval;
+        private LocalSnapshotFile<E> localSnapshot;
+        private MissOverlay<E> missOverlay;
+        private final SnapshotBudget.SnapshotBudgetBuilder snapshotBudget = SnapshotBudget.builder();
+        private Duration fetchTimeout;
+        private Double hedgePercentile;
+        private final List<SyncCollectionSupplier<E>> fallbacks = new ArrayList<>();
+        private ChangeFeed<E> changeFeed;
+        private Duration changeDebounce;
 
         public SyncedCollectionBuilder(SyncCollectionSupplier<E> syncCollectionSupplier) {
             this.syncCollectionSupplier = syncCollectionSupplier;
@@ -45,22 +104,190 @@ public interface SyncedCollection<E> extends Collection<E> {
             return this;
         }
 
-        public SyncedCollectionBuilder<E> interval(Duration interval) {
-            this.interval = interval;
+        /**
+         * Sets the factory creating each synced snapshot - e.g. {@link SnapshotFactory#indexed()} for
+         * constant-time {@code contains}. Defaults to {@link SnapshotFactory#unmodifiable()}.
+         */
+        public SyncedCollectionBuilder<E> snapshotFactory(SnapshotFactory<E> snapshotFactory) {
+            this.snapshotFactory = snapshotFactory;
+            return this;
+        }
+
+        /**
+         * Fronts each synced snapshot with a Bloom filter at the given false positive rate (e.g. {@code 0.01}),
+         * rebuilt on each sync - see {@link SnapshotFactory#bloomFiltered(SnapshotFactory, double)}. Defaults to none.
+         */
+        public SyncedCollectionBuilder<E> bloomFilter(Double falsePositiveRate) {
+            this.bloomFilterFalsePositiveRate = falsePositiveRate;
+            return this;
+        }
+
+        /**
+         * Defines an index of the synced elements by the key extracted from each, for {@link #lookup(String, Object)}.
+         * Any number of elements may share a key; elements with a {@code null} key are not indexed. Index names must
+         * be distinct - {@link #buildAndSync()} fails otherwise.
+         */
+        public SyncedCollectionBuilder<E> index(String name, Function<? super E, ?> keyExtractor) {
+            indexes.add(new SecondaryIndex<>(name, keyExtractor, false));
+            return this;
+        }
+
+        /**
+         * Like {@link #index(String, Function)}, for keys identifying a single element - a sync fetching several
+         * distinct elements with the same key fails with a {@link SnapshotRejectedException} naming the key, while
+         * equal elements are indexed once.
+         */
+        public SyncedCollectionBuilder<E> uniqueIndex(String name, Function<? super E, ?> keyExtractor) {
+            indexes.add(new SecondaryIndex<>(name, keyExtractor, true));
+            return this;
+        }
+
+        /**
+         * Sets the interval between full syncs of an {@link IncrementalSyncCollectionSupplier}, guarding against drift
+         * of the incrementally synced collection - and between rebuilds of a snapshot kept by change detection, guarding
+         * against fingerprint collisions. Defaults to one hour.
+         */
+        public SyncedCollectionBuilder<E> fullSyncInterval(Duration fullSyncInterval) {
+            this.fullSyncInterval = fullSyncInterval;
+            return this;
+        }
+
+        /**
+         * Keeps a local copy of the synced collection in the given file, updated after each successful sync.
+         * Unless an initial collection is set, a valid local copy no older than the given max age is loaded on build,
+         * and the built collection starts out synced with it - before any sync with the supplier.
+         */
+        public SyncedCollectionBuilder<E> localSnapshot(Path file, ElementCodec<E> codec, Duration maxAge) {
+            this.localSnapshot = new LocalSnapshotFile<>(file, codec, maxAge);
+            return this;
+        }
+
+        /**
+         * Consults the given loader whenever {@code contains} misses the synced snapshot - e.g. when only a hot subset
+         * of the backing collection is synced. Loaded results, absent elements included, are cached for the given
+         * time-to-live, up to the given max number of entries - evicting the least recently used ones - and are
+         * discarded whenever a new snapshot is synced.
+         */
+        public SyncedCollectionBuilder<E> missLoader(MissLoader<E> loader, int maxEntries, Duration ttl) {
+            this.missOverlay = new MissOverlay<>(loader, maxEntries, ttl);
+            return this;
+        }
+
+        /**
+         * Rejects a fetched snapshot of more than the given number of elements, keeping the previous snapshot in place
+         * and failing the sync with a {@link SnapshotRejectedException}. Defaults to no limit.
+         */
+        public SyncedCollectionBuilder<E> maxElements(Integer maxElements) {
+            snapshotBudget.maxElements(maxElements);
+            return this;
+        }
+
+        /**
+         * Like {@link #maxElements(Integer)}, rejecting a fetched snapshot whose estimated footprint is over the given
+         * number of bytes - see {@link #estimatedBytes()}. Defaults to no limit.
+         */
+        public SyncedCollectionBuilder<E> maxEstimatedBytes(Long maxEstimatedBytes) {
+            snapshotBudget.maxEstimatedBytes(maxEstimatedBytes);
+            return this;
+        }
+
+        /**
+         * Like {@link #maxElements(Integer)}, rejecting a fetched snapshot that grows or shrinks the previous one
+         * by more than the given ratio (e.g. {@code 2.0} for twice the size or half the size). Defaults to no limit.
+         */
+        public SyncedCollectionBuilder<E> maxSizeChangeRatio(Double maxSizeChangeRatio) {
+            if (maxSizeChangeRatio != null && !(maxSizeChangeRatio >= 1)) {
+                throw new IllegalArgumentException("maxSizeChangeRatio must be at least 1: " + maxSizeChangeRatio);
+            }
+            snapshotBudget.maxSizeChangeRatio(maxSizeChangeRatio);
+            return this;
+        }
+
+        /**
+         * Sets the estimate of the bytes held by each element, for {@link #estimatedBytes()}. Defaults to an estimate
+         * by length for strings, by size for boxed numbers, and by the object header alone for any other type.
+         */
+        @SuppressWarnings("unchecked")
+        public SyncedCollectionBuilder<E> elementBytesEstimator(ToLongFunction<? super E> elementBytes) {
+            snapshotBudget.elementBytes((ToLongFunction<Object>) elementBytes);
+            return this;
+        }
+
+        /**
+         * Fails a full fetch not completed within the given timeout - abandoning it, rather than holding the sync thread
+         * until it completes. Blocking suppliers are then invoked on a shared pool of fetch threads. Applies to the
+         * fetches of {@code get}/{@code getAsync}, rather than to incremental ones - and cannot be set for a
+         * {@link StreamingSyncCollectionSupplier}, consumed on the sync thread. Defaults to none.
+         */
+        public SyncedCollectionBuilder<E> fetchTimeout(Duration fetchTimeout) {
+            this.fetchTimeout = fetchTimeout;
+            return this;
+        }
+
+        /**
+         * Hedges a full fetch taking longer than the given percentile (e.g. {@code 95.0}) of recent fetch latencies
+         * with a second, identical fetch - using whichever completes first. Cannot be set for a
+         * {@link StreamingSyncCollectionSupplier}, consumed on the sync thread. Defaults to no hedging.
+         */
+        public SyncedCollectionBuilder<E> hedgeAfterPercentile(Double percentile) {
+            this.hedgePercentile = percentile;
+            return this;
+        }
+
+        /**
+         * Adds a supplier to fetch from when the full fetch - and the fetches of any fallback added before - failed or
+         * timed out, e.g. a read replica. Any number of fallbacks may be added, and are fetched from in order.
+         */
+        public SyncedCollectionBuilder<E> fallback(SyncCollectionSupplier<E> fallbackSupplier) {
+            fallbacks.add(Objects.requireNonNull(fallbackSupplier, "fallback supplier must be provided"));
             return this;
         }
 
-        public SyncedCollectionBuilder<E> maxAllowedNoSyncIntervals(Integer intervals) {
-            this.maxAllowedNoSyncIntervals = intervals;
+        /**
+         * Applies the changes pushed by the given feed as they happen - coalesced over the given debounce window
+         * (defaults to 100 milliseconds) and applied in batches to a new snapshot. Unless an interval is set, the
+         * supplier is then polled hourly, as a safety resync.
+         */
+        public SyncedCollectionBuilder<E> changeFeed(ChangeFeed<E> changeFeed, Duration debounce) {
+            this.changeFeed = Objects.requireNonNull(changeFeed, "change feed must be provided");
+            this.changeDebounce = debounce;
             return this;
         }
 
         public SyncedCollection<E> buildAndSync() {
+            if (syncCollectionSupplier instanceof StreamingSyncCollectionSupplier
+                    && (fetchTimeout != null || hedgePercentile != null)) {
+                throw new IllegalArgumentException("a streaming supplier is consumed on the sync thread, "
+                        + "so its fetches can be neither timed out nor hedged");
+            }
+            var initial = initialCollection == null && localSnapshot != null
+                    ? localSnapshot.load().orElse(null)
+                    : initialCollection;
+            SnapshotFactory<E> factory = Optional.ofNullable(snapshotFactory).orElseGet(SnapshotFactory::unmodifiable);
+            if (bloomFilterFalsePositiveRate != null) {
+                factory = SnapshotFactory.bloomFiltered(factory, bloomFilterFalsePositiveRate);
+            }
+            if (!indexes.isEmpty()) {
+                factory = SecondaryIndexedCollection.indexedBy(factory, indexes);
+            }
+            var options = syncOptions();
+            if (changeFeed != null && options.getInterval() == null) {
+                options = options.toBuilder().interval(SAFETY_RESYNC_INTERVAL).build();
+            }
             var collection = StrictSyncedCollection.<E>builder()
+                    .syncOptions(options)
                     .syncCollectionSupplier(syncCollectionSupplier)
-                    .interval(interval)
-                    .initialCollection(initialCollection)
-                    .maxAllowedNoSyncIntervals(maxAllowedNoSyncIntervals)
+                    .initialCollection(initial)
+                    .collectionSyncOptions(CollectionSyncOptions.<E>builder()
+                            .snapshotFactory(factory)
+                            .fullSyncInterval(fullSyncInterval)
+                            .localSnapshot(localSnapshot)
+                            .missOverlay(missOverlay)
+                            .snapshotBudget(snapshotBudget.build())
+                            .fetchPolicy(new FetchPolicy<>(fetchTimeout, hedgePercentile, fallbacks))
+                            .changeFeed(changeFeed)
+                            .changeDebounce(changeDebounce)
+                            .build())
                     .build();
             collection.startSync();
             return collection;
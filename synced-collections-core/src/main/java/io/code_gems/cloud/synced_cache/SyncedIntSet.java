@@ -0,0 +1,74 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A <b>read-only</b> set of {@code int} values, synced with a backing one.
+ * Mainly intended as a fast, compact, in-memory 'cache' layer to a remote, persistent and centralized set of
+ * numeric ids - held in a primitive hash table, with no boxing on either the sync or the lookup path.
+ * <p>
+ *      {@link #startSync()} must be called once, post instantiation, in order to start the sync process,
+ *      and {@link #stopSync()} stops it.
+ * </p>
+ */
+public interface SyncedIntSet {
+
+    void startSync();
+    void stopSync();
+    boolean isSynced();
+
+    /**
+     * Syncs as soon as possible, rather than waiting for the next periodic sync - sharing any sync already pending
+     * or in flight.
+     * @return completed with the version of the synced snapshot, or exceptionally with the sync failure
+     */
+    CompletableFuture<Long> refreshNow();
+
+    boolean contains(int value);
+    int size();
+    boolean isEmpty();
+    int[] toArray();
+    void forEach(IntConsumer action);
+    IntStream stream();
+
+    static SyncedIntSet createAndSync(SyncIntSetSupplier syncIntSetSupplier) {
+        var set = StrictSyncedIntSet.builder()
+                .syncIntSetSupplier(syncIntSetSupplier)
+                .build();
+        set.startSync();
+        return set;
+    }
+
+    static SyncedIntSetBuilder build(SyncIntSetSupplier syncIntSetSupplier) {
+        return new SyncedIntSetBuilder(syncIntSetSupplier);
+    }
+
+    class SyncedIntSetBuilder extends AbstractSyncedBuilder<SyncedIntSetBuilder> {
+
+        private final SyncIntSetSupplier syncIntSetSupplier;
+        private int[] initialValues;
+
+        public SyncedIntSetBuilder(SyncIntSetSupplier syncIntSetSupplier) {
+            this.syncIntSetSupplier = syncIntSetSupplier;
+        }
+
+        public SyncedIntSetBuilder initialValues(int[] initialValues) {
+            this.initialValues = initialValues;
+            return this;
+        }
+
+        public SyncedIntSet buildAndSync() {
+            var set = StrictSyncedIntSet.builder()
+                    .syncOptions(syncOptions())
+                    .syncIntSetSupplier(syncIntSetSupplier)
+                    .initialValues(initialValues)
+                    .build();
+            set.startSync();
+            return set;
+        }
+
+    }
+
+}
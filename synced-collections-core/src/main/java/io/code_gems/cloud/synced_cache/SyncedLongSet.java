@@ -0,0 +1,74 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A <b>read-only</b> set of {@code long} values, synced with a backing one.
+ * Mainly intended as a fast, compact, in-memory 'cache' layer to a remote, persistent and centralized set of
+ * numeric ids - held in a primitive hash table, with no boxing on either the sync or the lookup path.
+ * <p>
+ *      {@link #startSync()} must be called once, post instantiation, in order to start the sync process,
+ *      and {@link #stopSync()} stops it.
+ * </p>
+ */
+public interface SyncedLongSet {
+
+    void startSync();
+    void stopSync();
+    boolean isSynced();
+
+    /**
+     * Syncs as soon as possible, rather than waiting for the next periodic sync - sharing any sync already pending
+     * or in flight.
+     * @return completed with the version of the synced snapshot, or exceptionally with the sync failure
+     */
+    CompletableFuture<Long> refreshNow();
+
+    boolean contains(long value);
+    int size();
+    boolean isEmpty();
+    long[] toArray();
+    void forEach(LongConsumer action);
+    LongStream stream();
+
+    static SyncedLongSet createAndSync(SyncLongSetSupplier syncLongSetSupplier) {
+        var set = StrictSyncedLongSet.builder()
+                .syncLongSetSupplier(syncLongSetSupplier)
+                .build();
+        set.startSync();
+        return set;
+    }
+
+    static SyncedLongSetBuilder build(SyncLongSetSupplier syncLongSetSupplier) {
+        return new SyncedLongSetBuilder(syncLongSetSupplier);
+    }
+
+    class SyncedLongSetBuilder extends AbstractSyncedBuilder<SyncedLongSetBuilder> {
+
+        private final SyncLongSetSupplier syncLongSetSupplier;
+        private long[] initialValues;
+
+        public SyncedLongSetBuilder(SyncLongSetSupplier syncLongSetSupplier) {
+            this.syncLongSetSupplier = syncLongSetSupplier;
+        }
+
+        public SyncedLongSetBuilder initialValues(long[] initialValues) {
+            this.initialValues = initialValues;
+            return this;
+        }
+
+        public SyncedLongSet buildAndSync() {
+            var set = StrictSyncedLongSet.builder()
+                    .syncOptions(syncOptions())
+                    .syncLongSetSupplier(syncLongSetSupplier)
+                    .initialValues(initialValues)
+                    .build();
+            set.startSync();
+            return set;
+        }
+
+    }
+
+}
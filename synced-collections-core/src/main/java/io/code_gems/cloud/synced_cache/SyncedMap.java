@@ -0,0 +1,69 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A <b>read-only</b> Map, synced with a backing one.
+ * Mainly intended as a fast, in-memory 'cache' layer to a remote, persistent and centralized key-value collection.
+ * <p>
+ *      <b>Important: </b> any attempt to mutate or modify the Map will throw an {@link UnsupportedOperationException}.
+ *      {@link #startSync()} must be called once, post instantiation, in order to start the sync process,
+ *      and {@link #stopSync()} stops it.
+ *      Null keys and values are not supported - a sync supplying them fails.
+ * </p>
+ * @param <K> the type of the Map keys
+ * @param <V> the type of the Map values
+ */
+public interface SyncedMap<K, V> extends Map<K, V> {
+
+    void startSync();
+    void stopSync();
+    boolean isSynced();
+
+    /**
+     * Syncs as soon as possible, rather than waiting for the next periodic sync - sharing any sync already pending
+     * or in flight.
+     * @return completed with the version of the synced snapshot, or exceptionally with the sync failure
+     */
+    CompletableFuture<Long> refreshNow();
+
+    static <K, V> SyncedMap<K, V> createAndSync(SyncMapSupplier<K, V> syncMapSupplier) {
+        var map = StrictSyncedMap.<K, V>builder()
+                .syncMapSupplier(syncMapSupplier)
+                .build();
+        map.startSync();
+        return map;
+    }
+
+    static <K, V> SyncedMapBuilder<K, V> build(SyncMapSupplier<K, V> syncMapSupplier) {
+        return new SyncedMapBuilder<>(syncMapSupplier);
+    }
+
+    class SyncedMapBuilder<K, V> extends AbstractSyncedBuilder<SyncedMapBuilder<K, V>> {
+
+        private final SyncMapSupplier<K, V> syncMapSupplier;
+        private Map<K, V> initialMap;
+
+        public SyncedMapBuilder(SyncMapSupplier<K, V> syncMapSupplier) {
+            this.syncMapSupplier = syncMapSupplier;
+        }
+
+        public SyncedMapBuilder<K, V> initialMap(Map<K, V> initialMap) {
+            this.initialMap = initialMap;
+            return this;
+        }
+
+        public SyncedMap<K, V> buildAndSync() {
+            var map = StrictSyncedMap.<K, V>builder()
+                    .syncOptions(syncOptions())
+                    .syncMapSupplier(syncMapSupplier)
+                    .initialMap(initialMap)
+                    .build();
+            map.startSync();
+            return map;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A <b>read-only</b> NavigableSet, synced with a backing collection.
+ * Mainly intended as a fast, in-memory 'cache' layer to remote collections looked up by range - e.g. IP ranges or
+ * time-bucketed ids - held in a sorted array, built once per sync.
+ * <p>
+ *      Navigation methods ({@code floor}, {@code ceiling}, ...) binary search the current snapshot with no allocation.
+ *      Range views ({@code subSet}, {@code headSet}, {@code tailSet}) are views of the snapshot current when taken,
+ *      unaffected by later syncs.
+ * </p>
+ * <p>
+ *      <b>Important: </b> any attempt to mutate or modify the Set will throw an {@link UnsupportedOperationException}.
+ *      {@link #startSync()} must be called once, post instantiation, in order to start the sync process,
+ *      and {@link #stopSync()} stops it.
+ * </p>
+ * @param <E> the type of the Set elements
+ */
+public interface SyncedNavigableSet<E> extends NavigableSet<E> {
+
+    void startSync();
+    void stopSync();
+    boolean isSynced();
+
+    /**
+     * Syncs as soon as possible, rather than waiting for the next periodic sync - sharing any sync already pending
+     * or in flight.
+     * @return completed with the version of the synced snapshot, or exceptionally with the sync failure
+     */
+    CompletableFuture<Long> refreshNow();
+
+    static <E> SyncedNavigableSet<E> createAndSync(SyncCollectionSupplier<E> syncCollectionSupplier) {
+        var set = StrictSyncedNavigableSet.<E>builder()
+                .syncCollectionSupplier(syncCollectionSupplier)
+                .build();
+        set.startSync();
+        return set;
+    }
+
+    static <E> SyncedNavigableSetBuilder<E> build(SyncCollectionSupplier<E> syncCollectionSupplier) {
+        return new SyncedNavigableSetBuilder<>(syncCollectionSupplier);
+    }
+
+    class SyncedNavigableSetBuilder<E> extends AbstractSyncedBuilder<SyncedNavigableSetBuilder<E>> {
+
+        private final SyncCollectionSupplier<E> syncCollectionSupplier;
+        private Comparator<? super E> comparator;
+        private Collection<E> initialElements;
+
+        public SyncedNavigableSetBuilder(SyncCollectionSupplier<E> syncCollectionSupplier) {
+            this.syncCollectionSupplier = syncCollectionSupplier;
+        }
+
+        /**
+         * Sets the order of the synced elements. Defaults to their natural ordering.
+         */
+        public SyncedNavigableSetBuilder<E> comparator(Comparator<? super E> comparator) {
+            this.comparator = comparator;
+            return this;
+        }
+
+        public SyncedNavigableSetBuilder<E> initialElements(Collection<E> initialElements) {
+            this.initialElements = initialElements;
+            return this;
+        }
+
+        public SyncedNavigableSet<E> buildAndSync() {
+            var set = StrictSyncedNavigableSet.<E>builder()
+                    .syncOptions(syncOptions())
+                    .syncCollectionSupplier(syncCollectionSupplier)
+                    .comparator(comparator)
+                    .initialElements(initialElements)
+                    .build();
+            set.startSync();
+            return set;
+        }
+
+    }
+
+}
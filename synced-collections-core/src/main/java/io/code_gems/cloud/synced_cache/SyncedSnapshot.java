@@ -0,0 +1,38 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable view of a single snapshot of a {@link SyncedCollection}, as of the moment it was taken.
+ * <p>
+ *      All reads of a view observe the same elements, however many syncs happen meanwhile, and are never checked
+ *      for staleness - a strict synced collection checks once, when the view is taken. Suited for batches of
+ *      lookups that must be consistent with each other, e.g. {@code size()} followed by iteration.
+ * </p>
+ * <p>
+ *      <b>Important: </b> any attempt to mutate the view will throw an {@link UnsupportedOperationException}.
+ * </p>
+ * @param <E> the type of the Collection elements
+ */
+public interface SyncedSnapshot<E> extends Collection<E> {
+
+    /**
+     * The number of snapshots the synced collection published before this one - the initial snapshot is version 0.
+     * Increases with each sync that changed the snapshot.
+     */
+    long getVersion();
+
+    /**
+     * The time of the last successful sync as of the moment the view was taken - empty if none succeeded yet.
+     */
+    Optional<Instant> getSyncedAt();
+
+    /**
+     * Like {@link SyncedCollection#lookup(String, Object)}, within this snapshot.
+     */
+    List<E> lookup(String indexName, Object key);
+
+}
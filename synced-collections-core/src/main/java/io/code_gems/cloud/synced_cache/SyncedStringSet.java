@@ -0,0 +1,83 @@
+package io.code_gems.cloud.synced_cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A <b>read-only</b>, sorted set of strings, synced with a backing collection of strings.
+ * Mainly intended as a compact, in-memory 'cache' layer to large sets of URLs, domains or ids sharing long prefixes -
+ * held front-coded in a single byte array (see {@link SnapshotFactory#frontCoded()}), and supporting prefix queries.
+ * <p>
+ *      {@link #startSync()} must be called once, post instantiation, in order to start the sync process,
+ *      and {@link #stopSync()} stops it.
+ * </p>
+ */
+public interface SyncedStringSet extends SyncedCollection<String> {
+
+    /**
+     * Streams the strings starting with the given prefix, in order.
+     */
+    Stream<String> withPrefix(String prefix);
+
+    static SyncedStringSet createAndSync(SyncCollectionSupplier<String> syncCollectionSupplier) {
+        var set = StrictSyncedStringSet.stringSetBuilder()
+                .syncCollectionSupplier(syncCollectionSupplier)
+                .build();
+        set.startSync();
+        return set;
+    }
+
+    static SyncedStringSetBuilder build(SyncCollectionSupplier<String> syncCollectionSupplier) {
+        return new SyncedStringSetBuilder(syncCollectionSupplier);
+    }
+
+    class SyncedStringSetBuilder extends AbstractSyncedBuilder<SyncedStringSetBuilder> {
+
+        private final SyncCollectionSupplier<String> syncCollectionSupplier;
+        private Collection<String> initialStrings;
+        private final List<SecondaryIndex<String>> indexes = new ArrayList<>();
+
+        public SyncedStringSetBuilder(SyncCollectionSupplier<String> syncCollectionSupplier) {
+            this.syncCollectionSupplier = syncCollectionSupplier;
+        }
+
+        public SyncedStringSetBuilder initialStrings(Collection<String> initialStrings) {
+            this.initialStrings = initialStrings;
+            return this;
+        }
+
+        /**
+         * Defines an index of the synced strings by the key extracted from each, for {@link #lookup(String, Object)}.
+         * See {@link SyncedCollection.SyncedCollectionBuilder#index(String, Function)}.
+         */
+        public SyncedStringSetBuilder index(String name, Function<? super String, ?> keyExtractor) {
+            indexes.add(new SecondaryIndex<>(name, keyExtractor, false));
+            return this;
+        }
+
+        /**
+         * Like {@link #index(String, Function)}, for keys identifying a single string.
+         * See {@link SyncedCollection.SyncedCollectionBuilder#uniqueIndex(String, Function)}.
+         */
+        public SyncedStringSetBuilder uniqueIndex(String name, Function<? super String, ?> keyExtractor) {
+            indexes.add(new SecondaryIndex<>(name, keyExtractor, true));
+            return this;
+        }
+
+        public SyncedStringSet buildAndSync() {
+            var set = StrictSyncedStringSet.stringSetBuilder()
+                    .syncOptions(syncOptions())
+                    .syncCollectionSupplier(syncCollectionSupplier)
+                    .initialStrings(initialStrings)
+                    .indexes(indexes)
+                    .build();
+            set.startSync();
+            return set;
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+@DisplayName("Applied deltas:")
+class AppliedDeltasTest {
+
+    private static final List<String> SNAPSHOT = List.of("a", "b", "c");
+
+    @ParameterizedTest(name = "''{1}''")
+    @DisplayName("deltas applied to a snapshot should iterate as if applied to a copy of it, in order - with:")
+    @MethodSource
+    void sameAsCopy(List<SyncDelta<String>> deltas, String description) {
+        var applied = new AppliedDeltas<>(SNAPSHOT, deltas);
+        var iterated = new ArrayList<String>();
+        applied.forEachRemaining(iterated::add);
+
+        assertThat(iterated).containsExactlyElementsOf(appliedToCopy(deltas));
+        assertThat(applied.sizeHint()).isGreaterThanOrEqualTo(iterated.size());
+    }
+
+    static Stream<Arguments> sameAsCopy() {
+        return Stream.of(
+                arguments(List.of(), "no deltas"),
+                arguments(List.of(delta(List.of("d", "a"), List.of("b"))), "an existing element added, kept in place"),
+                arguments(List.of(delta(List.of(), List.of("a")), delta(List.of("a"), List.of())), "an element removed and re-added, moved last"),
+                arguments(List.of(delta(List.of("d"), List.of()), delta(List.of(), List.of("d"))), "an element added and removed"),
+                arguments(List.of(delta(List.of("d"), List.of()), SyncDelta.full(List.of("x", "y"), 1), delta(List.of("z"), List.of("x"))),
+                        "a full delta, replacing all before it"),
+                arguments(List.of(delta(List.of("d", "d", "e"), List.of("missing"))), "duplicate additions, and an absent element removed")
+        );
+    }
+
+    private static List<String> appliedToCopy(List<SyncDelta<String>> deltas) {
+        var copy = new LinkedHashSet<>(SNAPSHOT);
+        for (var delta : deltas) {
+            if (delta.isFull()) {
+                copy.clear();
+            }
+            delta.getRemoved().forEach(copy::remove);
+            copy.addAll(delta.getAdded());
+        }
+        return new ArrayList<>(copy);
+    }
+
+    private static SyncDelta<String> delta(List<String> added, List<String> removed) {
+        return SyncDelta.of(added, removed, 1);
+    }
+
+}
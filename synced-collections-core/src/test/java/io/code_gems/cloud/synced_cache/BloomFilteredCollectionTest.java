@@ -0,0 +1,81 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Bloom filtered snapshot:")
+class BloomFilteredCollectionTest {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("the filter should never reject an added element, and reject most others at about the requested rate")
+    void filterFalsePositiveRate() {
+        var filter = new BlockedBloomFilter(100_000, FALSE_POSITIVE_RATE);
+        IntStream.range(0, 100_000).mapToObj(i -> "item-" + i).forEach(filter::add);
+
+        assertThat(IntStream.range(0, 100_000).mapToObj(i -> "item-" + i)).allMatch(filter::mightContain);
+        long falsePositives = IntStream.range(100_000, 200_000).mapToObj(i -> "item-" + i)
+                .filter(filter::mightContain)
+                .count();
+        assertThat(falsePositives / 100_000d).isLessThan(FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    @DisplayName("'contains' should be exact, and all other reads delegated to the snapshot")
+    void exactLookups() {
+        List<String> source = IntStream.range(0, 1_000).mapToObj(i -> "item-" + i).collect(Collectors.toList());
+        var filtered = SnapshotFactory.bloomFiltered(SnapshotFactory.<String>indexed(), FALSE_POSITIVE_RATE).create(source);
+
+        assertThat(source).allMatch(filtered::contains);
+        assertThat(IntStream.range(1_000, 100_000).mapToObj(i -> "item-" + i)).noneMatch(filtered::contains);
+        assertThat(filtered.contains(null)).isFalse();
+        assertThat(filtered).containsExactlyElementsOf(source);
+        assertThatThrownBy(() -> filtered.add("item-1_000")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("a collection built with a Bloom filter - should be filtered on each sync")
+    void syncedWithBloomFilter() {
+        var mockSupplier = new MockSyncCollectionSupplier<String>();
+        mockSupplier.mockSupplyWith(List.of("item-1"));
+        testedCollection = SyncedCollection.build(mockSupplier)
+                .interval(Duration.ofMillis(1))
+                .bloomFilter(FALSE_POSITIVE_RATE)
+                .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection.contains("item-1")).isTrue());
+
+        mockSupplier.mockSupplyWith(List.of("item-2"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-2"));
+        assertThat(testedCollection.contains("item-1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("a false positive rate out of range - should be rejected")
+    void invalidFalsePositiveRate() {
+        assertThatThrownBy(() -> SnapshotFactory.bloomFiltered(SnapshotFactory.unmodifiable(), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SnapshotFactory.bloomFiltered(SnapshotFactory.unmodifiable(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
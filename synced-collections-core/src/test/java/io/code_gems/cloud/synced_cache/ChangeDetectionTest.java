@@ -0,0 +1,132 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Change detection:")
+class ChangeDetectionTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private final AtomicInteger unchangedSyncs = new AtomicInteger();
+    private final AtomicInteger changedSyncs = new AtomicInteger();
+    private final SyncListener listener = new SyncListener() {
+        @Override
+        public void onSyncSucceeded(SyncStats stats) {
+            (stats.isUnchanged() ? unchangedSyncs : changedSyncs).incrementAndGet();
+        }
+    };
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        testedCollection.stopSync();
+    }
+
+    @Test
+    @DisplayName("an unchanged version - should skip the fetch, and keep the current snapshot")
+    void unchangedVersion() {
+        var version = new AtomicReference<>("v1");
+        var elements = new AtomicReference<>(List.of("item-1"));
+        var fetchCount = new AtomicInteger();
+        testedCollection = SyncedCollection.build(new ConditionalSyncCollectionSupplier<String>() {
+            @Override
+            public String currentVersion() {
+                return version.get();
+            }
+
+            @Override
+            public Collection<String> get() {
+                fetchCount.incrementAndGet();
+                return elements.get();
+            }
+        }).interval(INTERVAL).listener(listener).buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> unchangedSyncs.get() > 10);
+        assertThat(fetchCount.get()).isEqualTo(1);
+        assertThat(testedCollection).containsExactly("item-1");
+
+        elements.set(List.of("item-2"));
+        version.set("v2");
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-2"));
+        assertThat(fetchCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a fetched collection equal to the previous one - should keep the current snapshot")
+    void unchangedContent() {
+        var elements = new AtomicReference<>(List.of("item-1", "item-2"));
+        testedCollection = SyncedCollection.build(() -> new ArrayList<>(elements.get()))
+                .interval(INTERVAL)
+                .snapshotFactory(SnapshotFactory.indexed())
+                .listener(listener)
+                .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> unchangedSyncs.get() > 10);
+        assertThat(changedSyncs.get()).isEqualTo(1);
+
+        elements.set(List.of("item-2", "item-1"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-2", "item-1"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(changedSyncs.get()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("a fetched collection equal to the previous one - should still be rebuilt once per full sync interval")
+    void unchangedContentRebuiltPerFullSyncInterval() {
+        testedCollection = SyncedCollection.build(() -> new ArrayList<>(List.of("item-1")))
+                .interval(INTERVAL)
+                .fullSyncInterval(Duration.ofMillis(50))
+                .listener(listener)
+                .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> changedSyncs.get() >= 3);
+        assertThat(unchangedSyncs.get()).isGreaterThan(changedSyncs.get());
+        assertThat(testedCollection).containsExactly("item-1");
+    }
+
+    @Test
+    @DisplayName("a fetched collection equal to the previous one, built into a sorted snapshot - should keep the current snapshot")
+    void unchangedContentSorted() {
+        testedCollection = SyncedCollection.build(() -> new ArrayList<>(List.of("item-2", "item-1")))
+                .interval(INTERVAL)
+                .snapshotFactory(source -> Collections.unmodifiableSortedSet(new TreeSet<>(source)))
+                .listener(listener)
+                .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> unchangedSyncs.get() > 10);
+        assertThat(changedSyncs.get()).isEqualTo(1);
+        assertThat(testedCollection).containsExactly("item-1", "item-2");
+    }
+
+    @Test
+    @DisplayName("a fetched collection equal to the previous one, after pushed changes - should replace the changed snapshot")
+    void unchangedContentAfterPushedChanges() throws Exception {
+        var changeFeed = new InMemoryChangeFeed<String>();
+        testedCollection = SyncedCollection.build(() -> new ArrayList<>(List.of("item-1")))
+                .interval(Duration.ofHours(1))
+                .changeFeed(changeFeed, Duration.ofMillis(1))
+                .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        changeFeed.add("item-2");
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).contains("item-2"));
+        testedCollection.refreshNow().get(2, TimeUnit.SECONDS);
+
+        assertThat(testedCollection).containsExactly("item-1");
+    }
+
+}
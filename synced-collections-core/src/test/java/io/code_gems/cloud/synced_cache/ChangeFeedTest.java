@@ -0,0 +1,107 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Change feed:")
+class ChangeFeedTest {
+
+    private final InMemoryChangeFeed<String> changeFeed = new InMemoryChangeFeed<>();
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private final AtomicInteger changedSyncs = new AtomicInteger();
+    private final AtomicInteger failedSyncs = new AtomicInteger();
+    private final SyncListener listener = new SyncListener() {
+        @Override
+        public void onSyncSucceeded(SyncStats stats) {
+            if (!stats.isUnchanged()) {
+                changedSyncs.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onSyncFailed(Exception cause, int consecutiveFailures) {
+            failedSyncs.incrementAndGet();
+        }
+    };
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        testedCollection.stopSync();
+    }
+
+    @Test
+    @DisplayName("pushed changes - should be applied with no fetch, coalesced within the debounce window")
+    void debouncedApply() {
+        testedCollection = buildWithFeed(Duration.ofMillis(100));
+
+        changeFeed.add("item-2");
+        changeFeed.add("item-3");
+        changeFeed.remove("item-1");
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(testedCollection).containsExactlyInAnyOrder("item-2", "item-3"));
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(changedSyncs.get()).isEqualTo(2));
+        assertThat(fetchCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a full delta pushed - should replace the snapshot as a whole")
+    void fullDelta() {
+        testedCollection = buildWithFeed(Duration.ofMillis(1));
+
+        changeFeed.add("item-2");
+        changeFeed.publish(SyncDelta.full(List.of("item-3"), SyncDelta.NO_VERSION));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-3"));
+    }
+
+    @Test
+    @DisplayName("pushed changes rejected by the snapshot budget - should be kept, and applied along with the next ones")
+    void rejectedBatch() {
+        testedCollection = SyncedCollection.build(() -> List.of("item-1"))
+                .changeFeed(changeFeed, Duration.ofMillis(50))
+                .maxElements(2)
+                .listener(listener)
+                .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        changeFeed.add("item-2");
+        changeFeed.add("item-3");
+        await().atMost(Duration.ofSeconds(2)).until(() -> failedSyncs.get() > 0);
+        assertThat(testedCollection).containsExactly("item-1");
+        changeFeed.remove("item-1");
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(testedCollection).containsExactlyInAnyOrder("item-2", "item-3"));
+    }
+
+    @Test
+    @DisplayName("a stopped collection - should not apply pushed changes anymore")
+    void stopSync() {
+        testedCollection = buildWithFeed(Duration.ofMillis(1));
+
+        testedCollection.stopSync();
+        changeFeed.add("item-2");
+
+        await().during(Duration.ofMillis(50)).atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(testedCollection).containsExactly("item-1"));
+    }
+
+    private SyncedCollection<String> buildWithFeed(Duration debounce) {
+        var collection = SyncedCollection.build(() -> {
+            fetchCount.incrementAndGet();
+            return List.of("item-1");
+        }).changeFeed(changeFeed, debounce).listener(listener).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(collection::isSynced);
+        return collection;
+    }
+
+}
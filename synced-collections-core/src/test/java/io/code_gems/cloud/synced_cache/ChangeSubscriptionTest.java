@@ -0,0 +1,151 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Change subscription:")
+class ChangeSubscriptionTest {
+
+    private static final List<String> PREVIOUS = List.of("a", "b", "c");
+    private static final List<String> NEXT = List.of("b", "c", "d", "e");
+
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("a diff of indexed snapshots - should hold the added and removed elements")
+    void indexedDiff() {
+        var factory = SnapshotFactory.bloomFiltered(SnapshotFactory.<String>indexed(), 0.01);
+        var previous = factory.create(PREVIOUS);
+        var next = factory.create(NEXT);
+
+        var changes = SnapshotDiff.between(previous, next, 7);
+
+        assertThat(SnapshotDiff.hasIndexedLookup(previous)).isTrue();
+        assertThat(changes.getAdded()).containsExactly("d", "e");
+        assertThat(changes.getRemoved()).containsExactly("a");
+        assertThat(changes.getVersion()).isEqualTo(7);
+        assertThat(changes.isFull()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a diff of snapshots with no indexed lookup - should hold the same changes")
+    void unindexedDiff() {
+        var factory = SnapshotFactory.<String>unmodifiable();
+        var previous = factory.create(PREVIOUS);
+
+        var changes = SnapshotDiff.between(previous, factory.create(NEXT), 1);
+
+        assertThat(SnapshotDiff.hasIndexedLookup(previous)).isFalse();
+        assertThat(changes.getAdded()).containsExactly("d", "e");
+        assertThat(changes.getRemoved()).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("subscribers - should receive the changes of each new snapshot, in order, until unsubscribed")
+    void subscribe() {
+        var supplied = new AtomicReference<>(PREVIOUS);
+        testedCollection = SyncedCollection.build(supplied::get)
+                                           .snapshotFactory(SnapshotFactory.indexed())
+                                           .interval(Duration.ofMillis(1))
+                                           .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+        var received = new CopyOnWriteArrayList<SyncDelta<String>>();
+        var subscription = testedCollection.subscribe(received::add);
+
+        supplied.set(NEXT);
+        await().atMost(Duration.ofSeconds(2)).until(() -> received.size() == 1);
+        supplied.set(List.of("e"));
+        await().atMost(Duration.ofSeconds(2)).until(() -> received.size() == 2);
+
+        assertThat(received.get(0).getAdded()).containsExactly("d", "e");
+        assertThat(received.get(0).getRemoved()).containsExactly("a");
+        assertThat(received.get(1).getAdded()).isEmpty();
+        assertThat(received.get(1).getRemoved()).containsExactly("b", "c", "d");
+        assertThat(received.get(1).getVersion()).isGreaterThan(received.get(0).getVersion());
+
+        subscription.close();
+        supplied.set(PREVIOUS);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).hasSize(3));
+        assertThat(received).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("a subscriber throwing an error - should neither stop other subscribers nor later deliveries")
+    void failingSubscriber() {
+        var supplied = new AtomicReference<>(PREVIOUS);
+        testedCollection = SyncedCollection.build(supplied::get)
+                                           .interval(Duration.ofMillis(1))
+                                           .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+        testedCollection.subscribe(changes -> {
+            throw new AssertionError("subscriber failed");
+        });
+        var received = new CopyOnWriteArrayList<SyncDelta<String>>();
+        testedCollection.subscribe(received::add);
+
+        supplied.set(NEXT);
+        await().atMost(Duration.ofSeconds(2)).until(() -> received.size() == 1);
+        supplied.set(PREVIOUS);
+        await().atMost(Duration.ofSeconds(2)).until(() -> received.size() == 2);
+
+        assertThat(received.get(1).getAdded()).containsExactly("a");
+        assertThat(received.get(1).getRemoved()).containsExactly("d", "e");
+    }
+
+    @Test
+    @DisplayName("snapshots synced while a subscriber is slow - should be coalesced into a single delivery, from the last delivered one")
+    void coalescedDeliveries() {
+        var supplied = new AtomicReference<>(PREVIOUS);
+        testedCollection = SyncedCollection.build(supplied::get)
+                                           .interval(Duration.ofHours(1))
+                                           .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+        var blocking = new CountDownLatch(1);
+        var received = new CopyOnWriteArrayList<SyncDelta<String>>();
+        testedCollection.subscribe(changes -> {
+            received.add(changes);
+            awaitUninterruptibly(blocking);
+        });
+
+        supplied.set(NEXT);
+        assertThat(testedCollection.refreshNow()).succeedsWithin(Duration.ofSeconds(2));
+        await().atMost(Duration.ofSeconds(2)).until(() -> received.size() == 1);
+        for (List<String> elements : List.of(List.of("x"), List.of("y"), List.of("e", "f"))) {
+            supplied.set(elements);
+            assertThat(testedCollection.refreshNow()).succeedsWithin(Duration.ofSeconds(2));
+        }
+        blocking.countDown();
+        await().atMost(Duration.ofSeconds(2)).until(() -> received.size() == 2);
+
+        assertThat(received.get(1).getAdded()).containsExactly("f");
+        assertThat(received.get(1).getRemoved()).containsExactly("b", "c", "d");
+        testedCollection.stopSync();
+        await().during(Duration.ofMillis(50)).atMost(Duration.ofSeconds(1)).until(() -> received.size() == 2);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
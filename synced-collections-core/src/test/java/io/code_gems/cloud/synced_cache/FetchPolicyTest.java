@@ -0,0 +1,158 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Fetch policy:")
+class FetchPolicyTest {
+
+    private final CountDownLatch hung = new CountDownLatch(1);
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        hung.countDown();
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("a hung blocking fetch - should time out, rather than hold the sync thread")
+    void blockingTimeout() {
+        var policy = new FetchPolicy<String>(Duration.ofMillis(50), null, null);
+
+        assertThatThrownBy(() -> policy.fetch(this::hang)).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("a timed out blocking fetch - should be interrupted, freeing its fetch thread")
+    void timedOutFetchInterrupted() {
+        var policy = new FetchPolicy<String>(Duration.ofMillis(50), null, null);
+        var interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> policy.fetch(() -> hangUntilInterrupted(interrupted))).isInstanceOf(TimeoutException.class);
+        await().atMost(Duration.ofSeconds(2)).until(() -> interrupted.getCount() == 0);
+    }
+
+    @Test
+    @DisplayName("a timed out hedged fetch - should interrupt both the original and the hedging fetches")
+    void timedOutHedgedFetchInterrupted() throws Exception {
+        var policy = new FetchPolicy<String>(Duration.ofMillis(200), 90.0, null);
+        for (int i = 0; i < 10; i++) {
+            policy.fetch(() -> List.of("fast"));
+        }
+        var fetchCount = new AtomicInteger();
+        var interrupted = new CountDownLatch(2);
+
+        assertThatThrownBy(() -> policy.fetch(() -> {
+            fetchCount.incrementAndGet();
+            return hangUntilInterrupted(interrupted);
+        })).isInstanceOf(TimeoutException.class);
+        assertThat(fetchCount.get()).isEqualTo(2);
+        await().atMost(Duration.ofSeconds(2)).until(() -> interrupted.getCount() == 0);
+    }
+
+    @Test
+    @DisplayName("a never completed async fetch - should time out")
+    void asyncTimeout() {
+        var policy = new FetchPolicy<String>(Duration.ofMillis(50), null, null);
+        AsyncSyncCollectionSupplier<String> supplier = CompletableFuture::new;
+
+        assertThatThrownBy(() -> policy.fetch(supplier)).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("a failed fetch - should fall back to the fallback suppliers, in order")
+    void fallbacks() throws Exception {
+        SyncCollectionSupplier<String> failing = () -> {
+            throw new IllegalStateException("primary down");
+        };
+        var policy = new FetchPolicy<String>(Duration.ofMillis(50), null, List.of(this::hang, () -> List.of("stand-in")));
+
+        assertThat(policy.fetch(failing)).containsExactly("stand-in");
+    }
+
+    @Test
+    @DisplayName("all fetches failed - should fail with the primary failure, suppressing the fallback ones")
+    void allFailed() {
+        var policy = new FetchPolicy<String>(null, null, List.of(() -> {
+            throw new IllegalStateException("replica down");
+        }));
+
+        assertThatThrownBy(() -> policy.fetch(() -> {
+            throw new IllegalStateException("primary down");
+        })).hasMessage("primary down")
+           .satisfies(e -> assertThat(e.getSuppressed()).extracting(Throwable::getMessage).containsExactly("replica down"));
+    }
+
+    @Test
+    @DisplayName("a fetch slower than the hedge percentile - should be hedged by a second fetch")
+    void hedging() throws Exception {
+        var policy = new FetchPolicy<String>(Duration.ofSeconds(5), 90.0, null);
+        for (int i = 0; i < 10; i++) {
+            policy.fetch(() -> List.of("fast"));
+        }
+        var fetchCount = new AtomicInteger();
+        AsyncSyncCollectionSupplier<String> supplier = () -> fetchCount.incrementAndGet() == 1
+                ? new CompletableFuture<>()
+                : CompletableFuture.completedFuture(List.of("hedged"));
+
+        long start = System.nanoTime();
+        assertThat(policy.fetch(supplier)).containsExactly("hedged");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(fetchCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a synced collection fetching with timeouts - should count timed out fetches as failed syncs")
+    void syncedCollection() {
+        var hanging = new AtomicInteger();
+        testedCollection = SyncedCollection.build((SyncCollectionSupplier<String>) () -> {
+            if (hanging.get() > 0) {
+                return hang();
+            }
+            return List.of("item");
+        }).fetchTimeout(Duration.ofMillis(20))
+          .interval(Duration.ofMillis(1))
+          .maxAllowedNoSyncIntervals(2)
+          .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+
+        hanging.set(1);
+        await().atMost(Duration.ofSeconds(2)).until(() -> !testedCollection.isSynced());
+        assertThatThrownBy(testedCollection::size).isInstanceOf(OutOfSyncException.class);
+    }
+
+    private Collection<String> hangUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            hung.await();
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return List.of("hung");
+    }
+
+    private Collection<String> hang() {
+        try {
+            hung.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return List.of("hung");
+    }
+
+}
@@ -0,0 +1,133 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Front-coded string set:")
+class FrontCodedStringSetTest {
+
+    private static final List<String> PREFIXES = List.of("", "https://", "https://example.com/", "https://example.org/",
+            "sku-", "été/", "中文/", "😀/", "\ud800");
+
+    private SyncedStringSet testedSet;
+
+    @AfterEach
+    void tearDown() {
+        if (testedSet != null) {
+            testedSet.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("'contains' should find every supplied string and nothing else, iterating in sorted order without duplicates")
+    void matchesSortedSet() {
+        var random = new Random(42);
+        List<String> source = randomStrings(random, 20_000);
+        source.addAll(source.subList(0, 1_000));
+        var expected = new TreeSet<>(source);
+        var set = new FrontCodedStringSet(source);
+
+        assertThat(set).hasSize(expected.size());
+        assertThat(new ArrayList<>(set)).isEqualTo(new ArrayList<>(expected));
+        assertThat(expected).allMatch(set::contains);
+        assertThat(randomStrings(random, 20_000)).allMatch(s -> set.contains(s) == expected.contains(s));
+        assertThat(set.contains(null)).isFalse();
+        assertThat(set.contains(42)).isFalse();
+    }
+
+    @Test
+    @DisplayName("prefix queries should stream exactly the strings starting with the prefix, in order")
+    void withPrefix() {
+        List<String> source = randomStrings(new Random(7), 5_000);
+        var expected = new TreeSet<>(source);
+        var set = new FrontCodedStringSet(source);
+
+        for (String prefix : List.of("", "https://", "https://example.com/a", "sku-1", "中", "\ud83d", "zzz")) {
+            assertThat(set.withPrefix(prefix).collect(Collectors.toList()))
+                    .as("prefix '%s'", prefix)
+                    .isEqualTo(expected.stream().filter(s -> s.startsWith(prefix)).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("an empty source should produce an empty set, and the set should not be modifiable")
+    void emptyAndImmutable() {
+        var empty = new FrontCodedStringSet(List.of());
+        assertThat(empty).isEmpty();
+        assertThat(empty.contains("")).isFalse();
+        assertThat(empty.withPrefix("")).isEmpty();
+
+        var set = new FrontCodedStringSet(List.of("a"));
+        assertThatThrownBy(() -> set.add("b")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> new FrontCodedStringSet(Arrays.asList("a", null))).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("a synced string set should serve the supplied strings, and prefix queries")
+    void syncedStringSet() {
+        var mockSupplier = new MockSyncCollectionSupplier<String>();
+        mockSupplier.mockSupplyWith(List.of("example.com/b", "example.com/a", "example.org/a"));
+        testedSet = SyncedStringSet.build(mockSupplier).interval(Duration.ofMillis(1)).buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedSet.contains("example.com/a")).isTrue());
+        assertThat(testedSet).containsExactly("example.com/a", "example.com/b", "example.org/a");
+        assertThat(testedSet.withPrefix("example.com/")).containsExactly("example.com/a", "example.com/b");
+    }
+
+    @Test
+    @DisplayName("a synced string set with an index - should look up strings by key, and prefix queries should still work")
+    void indexedStringSet() {
+        var mockSupplier = new MockSyncCollectionSupplier<String>();
+        mockSupplier.mockSupplyWith(List.of("example.com/b", "example.com/a", "example.org/a"));
+        testedSet = SyncedStringSet.build(mockSupplier)
+                                   .index("host", s -> s.substring(0, s.indexOf('/')))
+                                   .interval(Duration.ofMillis(1))
+                                   .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(testedSet::isSynced);
+        assertThat(testedSet.lookup("host", "example.com")).containsExactly("example.com/a", "example.com/b");
+        assertThat(testedSet.lookup("host", "example.net")).isEmpty();
+        assertThat(testedSet.withPrefix("example.org/")).containsExactly("example.org/a");
+    }
+
+    @Test
+    @DisplayName("a synced string set never synced - should throw on prefix queries and lookups")
+    void notSyncedStringSet() {
+        var mockSupplier = new MockSyncCollectionSupplier<String>();
+        mockSupplier.mockSupplyFailure();
+        testedSet = SyncedStringSet.build(mockSupplier).index("host", s -> s).interval(Duration.ofHours(1)).buildAndSync();
+
+        assertThatThrownBy(() -> testedSet.withPrefix("example")).isInstanceOf(OutOfSyncException.class);
+        assertThatThrownBy(() -> testedSet.lookup("host", "example.com")).isInstanceOf(OutOfSyncException.class);
+    }
+
+    private static List<String> randomStrings(Random random, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> PREFIXES.get(random.nextInt(PREFIXES.size())) + randomSuffix(random))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static String randomSuffix(Random random) {
+        var suffix = new StringBuilder();
+        int length = random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            suffix.append(random.nextInt(10) == 0 ? (char) (0x80 + random.nextInt(0x1000)) : (char) ('a' + random.nextInt(6)));
+        }
+        return suffix.toString();
+    }
+
+}
@@ -0,0 +1,128 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Incremental sync:")
+class IncrementalSyncTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private MockIncrementalSupplier mockSupplier;
+    private SyncedCollection<String> testedCollection;
+
+    @BeforeEach
+    void setUp() {
+        mockSupplier = new MockIncrementalSupplier();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("the first sync should be a full one, and subsequent syncs should ask for changes since the last version")
+    void firstSyncIsFull() {
+        mockSupplier.fullCollection = List.of("item-1");
+        testedCollection = SyncedCollection.build(mockSupplier).interval(INTERVAL).buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(mockSupplier.requestedVersions).hasSizeGreaterThan(2));
+        var requestedVersions = List.copyOf(mockSupplier.requestedVersions);
+        assertThat(requestedVersions.get(0)).isEqualTo(SyncDelta.NO_VERSION);
+        assertThat(requestedVersions.subList(1, 3)).containsOnly(MockIncrementalSupplier.VERSION);
+        assertThat(testedCollection).containsExactly("item-1");
+    }
+
+    @Test
+    @DisplayName("added and removed elements should be applied to the synced collection")
+    void deltaApplied() {
+        mockSupplier.fullCollection = List.of("item-1", "item-2");
+        testedCollection = SyncedCollection.build(mockSupplier)
+                                           .interval(INTERVAL)
+                                           .snapshotFactory(SnapshotFactory.indexed())
+                                           .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-1", "item-2"));
+
+        mockSupplier.delta = SyncDelta.of(List.of("item-3", "item-1"), List.of("item-2"), MockIncrementalSupplier.VERSION);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-1", "item-3"));
+        assertThat(testedCollection.contains("item-2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("a full delta should replace the synced collection")
+    void fullDeltaReplaces() {
+        mockSupplier.fullCollection = List.of("item-1");
+        testedCollection = SyncedCollection.build(mockSupplier).interval(INTERVAL).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-1"));
+
+        mockSupplier.delta = SyncDelta.full(List.of("item-2"), MockIncrementalSupplier.VERSION);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-2"));
+    }
+
+    @Test
+    @DisplayName("a full sync should be repeated once the full sync interval elapses")
+    void periodicFullSync() {
+        mockSupplier.fullCollection = List.of("item-1");
+        testedCollection = SyncedCollection.build(mockSupplier).interval(INTERVAL).fullSyncInterval(Duration.ofMillis(50)).buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(mockSupplier.requestedVersions.stream().filter(v -> v == SyncDelta.NO_VERSION)).hasSizeGreaterThan(1));
+    }
+
+    @Test
+    @DisplayName("a full sync rejected by the snapshot budget - should be retried, rather than deferred to the next full sync interval")
+    void rejectedFullSyncRetried() {
+        mockSupplier.fullCollection = List.of("item-1");
+        testedCollection = SyncedCollection.build(mockSupplier)
+                                           .interval(INTERVAL)
+                                           .fullSyncInterval(Duration.ofMillis(50))
+                                           .maxElements(1)
+                                           .maxAllowedNoSyncIntervals(Integer.MAX_VALUE)
+                                           .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        mockSupplier.fullCollection = List.of("item-1", "item-2");
+        await().atMost(Duration.ofSeconds(2)).until(() -> mockSupplier.requestedVersions.stream()
+                                                                                         .skip(1)
+                                                                                         .anyMatch(v -> v == SyncDelta.NO_VERSION));
+        mockSupplier.requestedVersions.clear();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(mockSupplier.requestedVersions).hasSizeGreaterThan(5));
+
+        assertThat(mockSupplier.requestedVersions).containsOnly(SyncDelta.NO_VERSION);
+        assertThat(testedCollection).containsExactly("item-1");
+    }
+
+    private static class MockIncrementalSupplier implements IncrementalSyncCollectionSupplier<String> {
+
+        static final long VERSION = 7;
+
+        final List<Long> requestedVersions = new CopyOnWriteArrayList<>();
+        volatile Collection<String> fullCollection = Collections.emptyList();
+        volatile SyncDelta<String> delta = SyncDelta.unchanged(VERSION);
+
+        @Override
+        public SyncDelta<String> getChangesSince(long version) {
+            requestedVersions.add(version);
+            if (version == SyncDelta.NO_VERSION) {
+                return SyncDelta.full(new ArrayList<>(fullCollection), VERSION);
+            }
+            return delta;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Indexed snapshot:")
+class IndexedCollectionTest {
+
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("'contains' should find every supplied element and nothing else")
+    void contains() {
+        List<Integer> source = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+        var indexed = new IndexedCollection<>(source);
+
+        assertThat(source).allMatch(indexed::contains);
+        assertThat(indexed.contains(10_000)).isFalse();
+        assertThat(indexed.contains(-1)).isFalse();
+        assertThat(indexed.contains("0")).isFalse();
+        assertThat(indexed.containsAll(source.subList(100, 200))).isTrue();
+    }
+
+    @Test
+    @DisplayName("iteration order, size and duplicates of the source should be kept")
+    void keepsSourceOrder() {
+        var source = Arrays.asList("c", "a", "b", "a", null);
+        var indexed = new IndexedCollection<>(source);
+
+        assertThat(indexed).containsExactly("c", "a", "b", "a", null);
+        assertThat(indexed.stream()).containsExactly("c", "a", "b", "a", null);
+        assertThat(indexed.toArray()).containsExactly("c", "a", "b", "a", null);
+        assertThat(indexed).hasSize(5);
+        assertThat(indexed.contains(null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("an empty source should produce an empty snapshot")
+    void empty() {
+        var indexed = new IndexedCollection<>(Collections.emptyList());
+
+        assertThat(indexed.isEmpty()).isTrue();
+        assertThat(indexed.contains("a")).isFalse();
+        assertThat(indexed.iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("the snapshot should not be affected by later source changes, nor be modifiable")
+    void immutable() {
+        var source = new ArrayList<>(List.of("a", "b"));
+        var indexed = new IndexedCollection<>(source);
+        source.add("c");
+
+        assertThat(indexed).containsExactly("a", "b");
+        assertThatThrownBy(() -> indexed.add("c")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> indexed.remove("x")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(indexed::clear).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> indexed.iterator().remove()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("a snapshot indexed in parallel should find every element, and keep source order and duplicates")
+    void indexedInParallel() {
+        List<Integer> source = IntStream.range(0, 300_000).map(i -> i % 200_000).boxed().collect(Collectors.toList());
+        var pool = new ForkJoinPool(4);
+        try {
+            var indexed = SnapshotFactory.<Integer>indexed(pool).create(source);
+
+            assertThat(source).allMatch(indexed::contains);
+            assertThat(IntStream.range(200_000, 210_000).boxed()).noneMatch(indexed::contains);
+            assertThat(indexed.contains(null)).isFalse();
+            assertThat(indexed.stream().collect(Collectors.toList())).isEqualTo(source);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("a synced collection built with the indexed factory should serve the supplied elements")
+    void syncedWithIndexedFactory() {
+        var mockSupplier = new MockSyncCollectionSupplier<String>();
+        mockSupplier.mockSupplyWith(List.of("item-1", "item-2"));
+        testedCollection = SyncedCollection.build(mockSupplier)
+                                           .interval(Duration.ofMillis(1))
+                                           .snapshotFactory(SnapshotFactory.indexed())
+                                           .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection.contains("item-2")).isTrue());
+        assertThat(testedCollection).containsExactly("item-1", "item-2");
+    }
+
+}
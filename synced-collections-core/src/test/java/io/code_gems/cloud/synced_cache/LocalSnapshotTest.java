@@ -0,0 +1,119 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Local snapshot:")
+class LocalSnapshotTest {
+
+    private static final Duration NO_RESYNC_INTERVAL = Duration.ofHours(1);
+    private static final Duration MAX_AGE = Duration.ofHours(1);
+
+    @TempDir
+    Path tempDir;
+    private Path snapshotFile;
+    private final List<SyncedCollection<String>> syncedCollections = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = tempDir.resolve("snapshot.bin");
+    }
+
+    @AfterEach
+    void tearDown() {
+        syncedCollections.forEach(SyncedCollection::stopSync);
+    }
+
+    @Test
+    @DisplayName("a collection synced once - should let a new collection start out synced, without its supplier")
+    void warmStart() {
+        syncOnce(List.of("item-1", "item-2"));
+
+        var testedCollection = buildWithFailingSupplier(MAX_AGE);
+
+        assertThat(testedCollection.isSynced()).isTrue();
+        assertThat(testedCollection).containsExactly("item-1", "item-2");
+    }
+
+    @Test
+    @DisplayName("a local snapshot older than the max age - should be ignored")
+    void tooOld() throws Exception {
+        syncOnce(List.of("item-1"));
+        Files.setLastModifiedTime(snapshotFile, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        var testedCollection = buildWithFailingSupplier(MAX_AGE);
+
+        assertThat(testedCollection.isSynced()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a corrupted local snapshot - should be ignored")
+    void corrupted() throws Exception {
+        syncOnce(List.of("item-1"));
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshotFile, bytes);
+
+        var testedCollection = buildWithFailingSupplier(MAX_AGE);
+
+        assertThat(testedCollection.isSynced()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a local snapshot with a negative element count - should be ignored")
+    void negativeCount() throws Exception {
+        syncOnce(List.of("item-1"));
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        // the count follows the magic number and the format version
+        bytes[2 * Integer.BYTES] = (byte) 0x80;
+        Files.write(snapshotFile, bytes);
+
+        var testedCollection = buildWithFailingSupplier(MAX_AGE);
+
+        assertThat(testedCollection.isSynced()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a missing local snapshot - should be ignored")
+    void missing() {
+        var testedCollection = buildWithFailingSupplier(MAX_AGE);
+
+        assertThat(testedCollection.isSynced()).isFalse();
+    }
+
+    private void syncOnce(List<String> elements) {
+        var mockSupplier = new MockSyncCollectionSupplier<String>();
+        mockSupplier.mockSupplyWith(elements);
+        syncedCollections.add(SyncedCollection.build(mockSupplier)
+                                              .interval(NO_RESYNC_INTERVAL)
+                                              .localSnapshot(snapshotFile, ElementCodec.utf8(), MAX_AGE)
+                                              .buildAndSync());
+        await().atMost(Duration.ofSeconds(2)).until(() -> Files.exists(snapshotFile));
+    }
+
+    private SyncedCollection<String> buildWithFailingSupplier(Duration maxAge) {
+        var mockSupplier = new MockSyncCollectionSupplier<String>();
+        mockSupplier.mockSupplyFailure();
+        var collection = SyncedCollection.build(mockSupplier)
+                                         .interval(NO_RESYNC_INTERVAL)
+                                         .localSnapshot(snapshotFile, ElementCodec.utf8(), maxAge)
+                                         .buildAndSync();
+        syncedCollections.add(collection);
+        return collection;
+    }
+
+}
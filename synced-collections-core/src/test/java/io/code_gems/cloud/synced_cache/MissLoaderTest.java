@@ -0,0 +1,135 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Miss loader:")
+class MissLoaderTest {
+
+    private static final Duration NO_RESYNC_INTERVAL = Duration.ofHours(1);
+    private static final Duration LONG_TTL = Duration.ofHours(1);
+
+    private final MockSyncCollectionSupplier<String> mockSupplier = new MockSyncCollectionSupplier<>();
+    private final Set<String> backingSource = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> loadCounts = new ConcurrentHashMap<>();
+    private final MissLoader<String> loader = element -> {
+        loadCounts.computeIfAbsent(element, e -> new AtomicInteger()).incrementAndGet();
+        return backingSource.contains(element);
+    };
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        testedCollection.stopSync();
+    }
+
+    @Test
+    @DisplayName("a snapshot miss - should be loaded once, and then served from the overlay - absent elements included")
+    void loadedOnMiss() {
+        mockSupplier.mockSupplyWith(List.of("hot-1"));
+        backingSource.add("cold-1");
+        testedCollection = syncedCollection(10, LONG_TTL);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(testedCollection.contains("hot-1")).isTrue();
+            assertThat(testedCollection.contains("cold-1")).isTrue();
+            assertThat(testedCollection.contains("absent")).isFalse();
+        }
+        assertThat(loadCounts).doesNotContainKey("hot-1");
+        assertThat(loadCounts.get("cold-1")).hasValue(1);
+        assertThat(loadCounts.get("absent")).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("the overlay - should evict least recently used entries beyond its max size, and expire entries")
+    void boundedAndExpiring() {
+        testedCollection = syncedCollection(2, Duration.ofMillis(200));
+
+        testedCollection.contains("a");
+        testedCollection.contains("b");
+        testedCollection.contains("a");
+        testedCollection.contains("c");
+        testedCollection.contains("a");
+        testedCollection.contains("b");
+        assertThat(loadCounts.get("a")).hasValue(1);
+        assertThat(loadCounts.get("b")).hasValue(2);
+
+        await().pollDelay(250, TimeUnit.MILLISECONDS).atMost(Duration.ofSeconds(2)).untilAsserted(() -> {
+            testedCollection.contains("a");
+            assertThat(loadCounts.get("a")).hasValue(2);
+        });
+    }
+
+    @Test
+    @DisplayName("concurrent misses of the same element - should share a single load")
+    void singleFlight() throws Exception {
+        var loadStarted = new CountDownLatch(1);
+        var loadBlocker = new CountDownLatch(1);
+        var loads = new AtomicInteger();
+        mockSupplier.mockSupplyWith(List.of());
+        testedCollection = SyncedCollection.build(mockSupplier)
+                .interval(NO_RESYNC_INTERVAL)
+                .missLoader(element -> {
+                    loads.incrementAndGet();
+                    loadStarted.countDown();
+                    loadBlocker.await();
+                    return true;
+                }, 10, LONG_TTL)
+                .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        var lookups = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> testedCollection.contains("cold-1")))
+                .collect(Collectors.toList());
+        loadStarted.await(2, TimeUnit.SECONDS);
+        // the lookups sharing the load stay blocked on it
+        await().during(Duration.ofMillis(50)).atMost(Duration.ofSeconds(2))
+               .until(() -> lookups.stream().noneMatch(CompletableFuture::isDone));
+        loadBlocker.countDown();
+
+        for (var lookup : lookups) {
+            assertThat(lookup.get(2, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a new synced snapshot - should discard all loaded results")
+    void clearedOnSync() throws Exception {
+        testedCollection = syncedCollection(10, LONG_TTL);
+        assertThat(testedCollection.contains("cold-1")).isFalse();
+
+        backingSource.add("cold-1");
+        assertThat(testedCollection.contains("cold-1")).isFalse();
+
+        mockSupplier.mockSupplyWith(List.of("hot-2"));
+        testedCollection.refreshNow().get(2, TimeUnit.SECONDS);
+        assertThat(testedCollection.contains("cold-1")).isTrue();
+    }
+
+    private SyncedCollection<String> syncedCollection(int maxEntries, Duration ttl) {
+        var collection = SyncedCollection.build(mockSupplier)
+                .interval(NO_RESYNC_INTERVAL)
+                .missLoader(loader, maxEntries, ttl)
+                .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(collection::isSynced);
+        return collection;
+    }
+
+}
@@ -0,0 +1,181 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SuppressWarnings("SuspiciousMethodCalls")
+@DisplayName("Off-heap snapshot:")
+class OffHeapCollectionTest {
+
+    @TempDir
+    Path tempDir;
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("'contains' should find every supplied element and nothing else")
+    void contains() {
+        List<String> source = IntStream.range(0, 10_000).mapToObj(i -> "item-" + i).collect(Collectors.toList());
+        var offHeap = new OffHeapCollection<>(source, ElementCodec.utf8(), ByteBuffer::allocateDirect);
+
+        assertThat(source).allMatch(offHeap::contains);
+        assertThat(offHeap.contains("item-10000")).isFalse();
+        assertThat(offHeap.contains("")).isFalse();
+        assertThat(offHeap.contains(null)).isFalse();
+        assertThat(offHeap.contains(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("iteration order, size and duplicates of the source should be kept")
+    void keepsSourceOrder() {
+        var offHeap = new OffHeapCollection<>(List.of("c", "a", "", "a"), ElementCodec.utf8(), ByteBuffer::allocateDirect);
+
+        assertThat(offHeap).containsExactly("c", "a", "", "a");
+        assertThat(offHeap).hasSize(4);
+        assertThat(offHeap.contains("")).isTrue();
+    }
+
+    @Test
+    @DisplayName("elements of unknown count, outgrowing the scratch buffer - should all be kept, in order, duplicates included")
+    void outgrowsScratchBuffer() {
+        List<String> source = IntStream.range(0, 50_000).mapToObj(i -> "item-" + (i % 30_000)).collect(Collectors.toList());
+        var offHeap = new OffHeapCollection<>(source.iterator(), StreamingSyncCollectionSupplier.UNKNOWN_SIZE,
+                ElementCodec.utf8(), ByteBuffer::allocateDirect);
+
+        assertThat(offHeap).containsExactlyElementsOf(source);
+        assertThat(source).allMatch(offHeap::contains);
+        assertThat(offHeap.contains("item-30000")).isFalse();
+    }
+
+    @Test
+    @DisplayName("a memory-mapped snapshot should behave the same, without leaving files behind")
+    void memoryMapped() throws Exception {
+        var mapped = SnapshotFactory.memoryMapped(ElementCodec.utf8(), tempDir).create(List.of("a", "b"));
+
+        assertThat(mapped).containsExactly("a", "b");
+        assertThat(mapped.contains("b")).isTrue();
+        assertThat(mapped.contains("c")).isFalse();
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("the snapshot should not be modifiable")
+    void immutable() {
+        Collection<String> offHeap = new OffHeapCollection<>(List.of("a"), ElementCodec.utf8(), ByteBuffer::allocateDirect);
+
+        assertThatThrownBy(() -> offHeap.add("b")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> offHeap.remove("a")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(offHeap::clear).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("a synced collection built with the off-heap factory should serve the supplied elements")
+    void syncedWithOffHeapFactory() {
+        var mockSupplier = new MockSyncCollectionSupplier<String>();
+        mockSupplier.mockSupplyWith(List.of("item-1", "item-2"));
+        testedCollection = SyncedCollection.build(mockSupplier)
+                                           .interval(Duration.ofMillis(1))
+                                           .snapshotFactory(SnapshotFactory.offHeap(ElementCodec.utf8()))
+                                           .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection.contains("item-2")).isTrue());
+        assertThat(testedCollection).containsExactly("item-1", "item-2");
+    }
+
+    @Test
+    @DisplayName("a retired snapshot no longer read - should be released, refusing reads")
+    void releasedOnceRetired() {
+        var offHeap = new OffHeapCollection<>(List.of("a", "b"), ElementCodec.utf8(), ByteBuffer::allocateDirect);
+
+        offHeap.releaseGuard().retire();
+
+        assertThatThrownBy(() -> offHeap.contains("a")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(offHeap::iterator).isInstanceOf(IllegalStateException.class);
+        assertThat(offHeap).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("a retired snapshot still iterated - should be released only once iterated through")
+    void releasedOnceIteratedThrough() {
+        var offHeap = new OffHeapCollection<>(List.of("a", "b"), ElementCodec.utf8(), ByteBuffer::allocateDirect);
+        var iterator = offHeap.iterator();
+        assertThat(iterator.next()).isEqualTo("a");
+
+        offHeap.releaseGuard().retire();
+
+        assertThat(offHeap.contains("b")).isTrue();
+        assertThat(iterator.next()).isEqualTo("b");
+        assertThatThrownBy(() -> offHeap.contains("b")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("a synced collection - should release each replaced snapshot a sync later, keeping views of it readable")
+    void replacedSnapshotsReleased() {
+        var created = new CopyOnWriteArrayList<Collection<String>>();
+        SnapshotFactory<String> offHeapFactory = SnapshotFactory.offHeap(ElementCodec.utf8());
+        var version = new AtomicInteger();
+        testedCollection = SyncedCollection.build(() -> List.of("item-" + version.incrementAndGet()))
+                                           .interval(Duration.ofHours(1))
+                                           .snapshotFactory(elements -> {
+                                               var snapshot = offHeapFactory.create(elements);
+                                               created.add(snapshot);
+                                               return snapshot;
+                                           })
+                                           .buildAndSync();
+        assertThat(testedCollection.refreshNow()).succeedsWithin(Duration.ofSeconds(2));
+        var view = testedCollection.snapshot();
+        int viewed = created.size() - 1;
+
+        assertThat(testedCollection.refreshNow()).succeedsWithin(Duration.ofSeconds(2));
+        assertThat(testedCollection.refreshNow()).succeedsWithin(Duration.ofSeconds(2));
+
+        assertThat(created.subList(0, viewed)).isNotEmpty().allSatisfy(released ->
+                assertThatThrownBy(() -> released.contains("item-0")).isInstanceOf(IllegalStateException.class));
+        assertThat(view.contains(view.iterator().next())).isTrue();
+        // replaced a sync ago, so kept until the next one
+        var replaced = created.get(created.size() - 2);
+        assertThat(replaced.contains(replaced.iterator().next())).isTrue();
+        assertThat(testedCollection).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("UTF-8 encoding into a lookup buffer - should produce the bytes of String.getBytes, lone surrogates included")
+    void utf8EncodeInto() {
+        var codec = ElementCodec.utf8();
+        var buffer = new byte[64];
+        for (String s : List.of("", "ascii", "été", "中文", "😀", "a\ud800b", "\udc00", "\ud800", "x😀y\ud83d")) {
+            int length = codec.encodeInto(s, buffer);
+            assertThat(Arrays.copyOf(buffer, length)).as("'%s'", s).isEqualTo(s.getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(codec.encodeInto("x".repeat(22), buffer)).isEqualTo(-1);
+    }
+
+}
@@ -0,0 +1,225 @@
+package io.code_gems.cloud.synced_cache;
+
+import io.code_gems.cloud.synced_cache.PartitionedSyncCollectionSupplier.PartitionFailurePolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Partitioned supplier:")
+class PartitionedSupplierTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private final List<Exception> failures = new CopyOnWriteArrayList<>();
+    private final SyncListener listener = new SyncListener() {
+        @Override
+        public void onSyncFailed(Exception failure, int consecutiveFailures) {
+            failures.add(failure);
+        }
+    };
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("partitions - should be fetched concurrently, up to the max parallel fetches, and merged in order")
+    void parallelFetch() {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var partitions = new ArrayList<SyncCollectionSupplier<String>>();
+        for (int i = 0; i < 8; i++) {
+            var element = "shard-" + i;
+            partitions.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                return List.of(element);
+            });
+        }
+        testedCollection = SyncedCollection.build(PartitionedSyncCollectionSupplier.of(partitions, 4,
+                PartitionFailurePolicy.FAIL_SYNC)).interval(Duration.ofHours(1)).buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+        assertThat(testedCollection).containsExactly("shard-0", "shard-1", "shard-2", "shard-3", "shard-4", "shard-5",
+                "shard-6", "shard-7");
+        assertThat(maxRunning.get()).isBetween(2, 4);
+    }
+
+    @Test
+    @DisplayName("a failed partition, failing the sync - should keep the previous snapshot in place")
+    void failSync() {
+        var failing = new AtomicBoolean();
+        testedCollection = SyncedCollection.build(PartitionedSyncCollectionSupplier.of(partitions(failing), 2,
+                PartitionFailurePolicy.FAIL_SYNC)).interval(INTERVAL).maxAllowedNoSyncIntervals(Integer.MAX_VALUE)
+                .listener(listener).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+
+        failing.set(true);
+        await().atMost(Duration.ofSeconds(2)).until(() -> !failures.isEmpty());
+        assertThat(failures.get(0)).hasMessage("shard down");
+        assertThat(testedCollection).containsExactly("a-1", "b-1");
+    }
+
+    @Test
+    @DisplayName("a failed partition, kept as previously fetched - should merge it with fresh partitions, counting a failed sync")
+    void keepPrevious() {
+        var failing = new AtomicBoolean();
+        var version = new AtomicInteger(1);
+        var partitions = List.<SyncCollectionSupplier<String>>of(
+                () -> List.of("a-" + version.get()),
+                () -> {
+                    if (failing.get()) {
+                        throw new IllegalStateException("shard down");
+                    }
+                    return List.of("b-" + version.get());
+                });
+        testedCollection = SyncedCollection.build(PartitionedSyncCollectionSupplier.of(partitions, 2,
+                PartitionFailurePolicy.KEEP_PREVIOUS)).interval(Duration.ofHours(1)).maxAllowedNoSyncIntervals(1)
+                .listener(listener).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+
+        failing.set(true);
+        version.set(2);
+        assertThat(testedCollection.refreshNow()).failsWithin(Duration.ofSeconds(2));
+        assertThat(testedCollection).containsExactly("a-2", "b-1");
+        assertThat(failures).singleElement().isInstanceOf(PartialSyncException.class);
+
+        assertThat(testedCollection.refreshNow()).failsWithin(Duration.ofSeconds(2));
+        assertThat(testedCollection.isSynced()).isFalse();
+        assertThatThrownBy(testedCollection::size).isInstanceOf(OutOfSyncException.class);
+    }
+
+    @Test
+    @DisplayName("a partition slower than the fetch timeout - should be interrupted, and kept as previously fetched")
+    void partitionTimeout() {
+        var hanging = new AtomicBoolean();
+        var interrupted = new CountDownLatch(1);
+        var partitions = List.<SyncCollectionSupplier<String>>of(
+                () -> List.of("a-1"),
+                () -> {
+                    if (hanging.get()) {
+                        sleepUntilInterrupted(interrupted);
+                    }
+                    return List.of("b-1");
+                });
+        testedCollection = SyncedCollection.build(PartitionedSyncCollectionSupplier.of(partitions, 2,
+                PartitionFailurePolicy.KEEP_PREVIOUS)).fetchTimeout(Duration.ofMillis(100)).interval(Duration.ofHours(1))
+                .listener(listener).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+
+        hanging.set(true);
+        assertThat(testedCollection.refreshNow()).failsWithin(Duration.ofSeconds(2));
+        assertThat(failures).singleElement().isInstanceOf(PartialSyncException.class);
+        assertThat(failures.get(0)).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(testedCollection).containsExactly("a-1", "b-1");
+        await().atMost(Duration.ofSeconds(2)).until(() -> interrupted.getCount() == 0);
+    }
+
+    @Test
+    @DisplayName("partitions queued behind the max parallel fetches - should have the fetch timeout counted from their own start")
+    void queuedPartitionTimeout() {
+        var partitions = new ArrayList<SyncCollectionSupplier<String>>();
+        for (int i = 0; i < 4; i++) {
+            var element = "shard-" + i;
+            partitions.add(() -> {
+                sleep(60);
+                return List.of(element);
+            });
+        }
+        testedCollection = SyncedCollection.build(PartitionedSyncCollectionSupplier.of(partitions, 1,
+                PartitionFailurePolicy.FAIL_SYNC)).fetchTimeout(Duration.ofMillis(150)).interval(Duration.ofHours(1))
+                .listener(listener).buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+        assertThat(testedCollection).containsExactly("shard-0", "shard-1", "shard-2", "shard-3");
+        assertThat(failures).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a failed partition, failing the sync - should fall back to the fallback suppliers")
+    void fallback() {
+        testedCollection = SyncedCollection.build(PartitionedSyncCollectionSupplier.of(partitions(new AtomicBoolean(true)),
+                2, PartitionFailurePolicy.FAIL_SYNC)).fallback(() -> List.of("stand-in")).interval(Duration.ofHours(1))
+                .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+        assertThat(testedCollection).containsExactly("stand-in");
+    }
+
+    @Test
+    @DisplayName("a partition fetching null - should fail the sync, naming the partition")
+    void nullPartition() {
+        var partitions = List.<SyncCollectionSupplier<String>>of(() -> List.of("a-1"), () -> null);
+        testedCollection = SyncedCollection.build(PartitionedSyncCollectionSupplier.of(partitions, 2,
+                PartitionFailurePolicy.FAIL_SYNC)).interval(Duration.ofHours(1)).listener(listener).buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> !failures.isEmpty());
+        assertThat(failures.get(0)).hasMessage("partition #1 fetched null");
+    }
+
+    @Test
+    @DisplayName("a supplier with no parallel fetches - should be rejected")
+    void noParallelFetches() {
+        PartitionedSyncCollectionSupplier<String> supplier = new PartitionedSyncCollectionSupplier<>() {
+            @Override
+            public List<SyncCollectionSupplier<String>> partitions() {
+                return PartitionedSupplierTest.partitions(new AtomicBoolean());
+            }
+
+            @Override
+            public int maxParallelFetches() {
+                return 0;
+            }
+        };
+
+        assertThatThrownBy(() -> SyncedCollection.build(supplier).buildAndSync())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxParallelFetches");
+    }
+
+    private static List<SyncCollectionSupplier<String>> partitions(AtomicBoolean failing) {
+        return List.of(
+                () -> List.of("a-1"),
+                () -> {
+                    if (failing.get()) {
+                        throw new IllegalStateException("shard down");
+                    }
+                    return List.of("b-1");
+                });
+    }
+
+    private static void sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
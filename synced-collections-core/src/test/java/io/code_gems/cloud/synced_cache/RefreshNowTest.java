@@ -0,0 +1,164 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("On-demand refresh:")
+class RefreshNowTest {
+
+    private static final Duration NO_RESYNC_INTERVAL = Duration.ofHours(1);
+
+    private final AtomicReference<Collection<String>> elements = new AtomicReference<>(List.of("item-1"));
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private volatile CountDownLatch fetchBlocker = new CountDownLatch(0);
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        testedCollection.stopSync();
+    }
+
+    @Test
+    @DisplayName("a refresh - should sync right away, completing with the new snapshot version")
+    void refresh() throws Exception {
+        testedCollection = syncedCollection(null);
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+        long syncedVersion = testedCollection.snapshot().getVersion();
+
+        elements.set(List.of("item-2"));
+        long refreshedVersion = testedCollection.refreshNow().get(2, TimeUnit.SECONDS);
+
+        assertThat(refreshedVersion).isEqualTo(syncedVersion + 1);
+        assertThat(testedCollection).containsExactly("item-2");
+    }
+
+    @Test
+    @DisplayName("concurrent refreshes, requested before their sync started - should share a single fetch")
+    void concurrentRefreshes() {
+        testedCollection = syncedCollection(Duration.ofMillis(200));
+        // settles the syncs started along with the collection
+        testedCollection.refreshNow().join();
+        int fetchesBefore = fetchCount.get();
+
+        List<CompletableFuture<Long>> refreshes = IntStream.range(0, 10)
+                .mapToObj(i -> testedCollection.refreshNow())
+                .collect(Collectors.toList());
+
+        assertThat(CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new)))
+                .succeedsWithin(Duration.ofSeconds(2));
+        assertThat(refreshes.stream().map(CompletableFuture::join).distinct()).hasSize(1);
+        assertThat(fetchCount.get()).isEqualTo(fetchesBefore + 1);
+    }
+
+    @Test
+    @DisplayName("refreshes requested while a fetch runs - should share a single follow-up fetch, seeing later changes")
+    void refreshDuringFetch() throws Exception {
+        testedCollection = syncedCollection(null);
+        // settles the syncs started along with the collection
+        testedCollection.refreshNow().join();
+        int fetchesBefore = fetchCount.get();
+
+        fetchBlocker = new CountDownLatch(1);
+        var running = testedCollection.refreshNow();
+        await().atMost(Duration.ofSeconds(2)).until(() -> fetchCount.get() == fetchesBefore + 1);
+        elements.set(List.of("item-3"));
+        var followUps = List.of(testedCollection.refreshNow(), testedCollection.refreshNow());
+        fetchBlocker.countDown();
+
+        long runningVersion = running.get(2, TimeUnit.SECONDS);
+        assertThat(followUps.get(0).get(2, TimeUnit.SECONDS)).isGreaterThan(runningVersion)
+                                                            .isEqualTo(followUps.get(1).join());
+        assertThat(testedCollection).containsExactly("item-3");
+        assertThat(fetchCount.get()).isEqualTo(fetchesBefore + 2);
+    }
+
+    @Test
+    @DisplayName("a refresh within the min refresh gap - should be delayed until the gap elapses")
+    void minRefreshGap() throws Exception {
+        testedCollection = syncedCollection(Duration.ofMillis(300));
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        long start = System.nanoTime();
+        testedCollection.refreshNow().get(2, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(100);
+        assertThat(fetchCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a failed refresh - should complete exceptionally with the sync failure")
+    void failedRefresh() {
+        testedCollection = SyncedCollection.<String>build(() -> {
+            throw new IllegalStateException("source unavailable");
+        }).interval(NO_RESYNC_INTERVAL).buildAndSync();
+
+        assertThatThrownBy(() -> testedCollection.refreshNow().get(2, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("a sync aborted by an error - should complete its refresh exceptionally, and not block later syncs")
+    void abortedSync() throws Exception {
+        var failBuild = new AtomicBoolean();
+        var failedThread = new AtomicReference<Thread>();
+        testedCollection = SyncedCollection.<String>build(elements::get)
+                .snapshotFactory(source -> {
+                    if (failBuild.getAndSet(false)) {
+                        failedThread.set(Thread.currentThread());
+                        throw new Error("snapshot build failed");
+                    }
+                    return List.copyOf(source);
+                })
+                .interval(NO_RESYNC_INTERVAL)
+                .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        elements.set(List.of("item-2"));
+        failBuild.set(true);
+        assertThatThrownBy(() -> testedCollection.refreshNow().get(2, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(Error.class);
+        // the error goes on to end its sync thread - awaited here, rather than caught by the awaits of later tests
+        await().dontCatchUncaughtExceptions().atMost(Duration.ofSeconds(2)).until(() -> !failedThread.get().isAlive());
+        testedCollection.refreshNow().get(2, TimeUnit.SECONDS);
+        assertThat(testedCollection).containsExactly("item-2");
+    }
+
+    private SyncedCollection<String> syncedCollection(Duration minRefreshGap) {
+        return SyncedCollection.<String>build(() -> {
+            var fetched = elements.get();
+            fetchCount.incrementAndGet();
+            awaitUninterruptedly(fetchBlocker);
+            return fetched;
+        }).interval(NO_RESYNC_INTERVAL).minRefreshGap(minRefreshGap).buildAndSync();
+    }
+
+    private static void awaitUninterruptedly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
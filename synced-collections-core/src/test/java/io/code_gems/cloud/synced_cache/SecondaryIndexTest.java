@@ -0,0 +1,120 @@
+package io.code_gems.cloud.synced_cache;
+
+import lombok.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Secondary indexes:")
+class SecondaryIndexTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+    private static final Rule RULE_1 = new Rule(1, "merchant-1", "US");
+    private static final Rule RULE_2 = new Rule(2, "merchant-1", "FR");
+    private static final Rule RULE_3 = new Rule(3, "merchant-2", null);
+
+    private final List<Exception> failures = new CopyOnWriteArrayList<>();
+    private final SyncListener listener = new SyncListener() {
+        @Override
+        public void onSyncFailed(Exception failure, int consecutiveFailures) {
+            failures.add(failure);
+        }
+    };
+    private final AtomicReference<Collection<Rule>> rules = new AtomicReference<>(List.of(RULE_1, RULE_2, RULE_3));
+    private final SyncedCollection<Rule> testedCollection = SyncedCollection.build(rules::get)
+            .interval(INTERVAL)
+            .maxAllowedNoSyncIntervals(0)
+            .listener(listener)
+            .uniqueIndex("id", Rule::getId)
+            .index("merchant", Rule::getMerchantId)
+            .index("country", Rule::getCountry)
+            .buildAndSync();
+
+    @AfterEach
+    void tearDown() {
+        testedCollection.stopSync();
+    }
+
+    @Test
+    @DisplayName("lookups by key - should return the elements with that key, in iteration order")
+    void lookups() {
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        assertThat(testedCollection.lookup("id", 2)).containsExactly(RULE_2);
+        assertThat(testedCollection.lookup("merchant", "merchant-1")).containsExactly(RULE_1, RULE_2);
+        assertThat(testedCollection.lookup("country", "FR")).containsExactly(RULE_2);
+        assertThat(testedCollection.lookup("country", null)).isEmpty();
+        assertThat(testedCollection.lookup("merchant", "merchant-3")).isEmpty();
+        assertThatThrownBy(() -> testedCollection.lookup("name", "x")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("indexes - should be rebuilt on each sync")
+    void rebuiltOnSync() {
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        var rule4 = new Rule(4, "merchant-2", "US");
+        rules.set(List.of(RULE_1, rule4));
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(testedCollection.lookup("merchant", "merchant-2")).containsExactly(rule4));
+        assertThat(testedCollection.lookup("country", "US")).containsExactly(RULE_1, rule4);
+        assertThat(testedCollection.lookup("id", 2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("duplicate keys of a unique index - should reject the snapshot, naming the key")
+    void duplicateUniqueKeys() {
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        rules.set(List.of(RULE_1, new Rule(1, "merchant-3", "US")));
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThatThrownBy(() -> testedCollection.lookup("id", 1)).isInstanceOf(OutOfSyncException.class));
+        await().atMost(Duration.ofSeconds(2)).until(() -> !failures.isEmpty());
+        assertThat(failures.get(0)).isInstanceOf(SnapshotRejectedException.class)
+                                   .hasMessageContaining("'id': 1");
+    }
+
+    @Test
+    @DisplayName("equal elements repeated under a unique key - should be indexed once, rather than rejected")
+    void repeatedUniqueElements() {
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+
+        rules.set(List.of(RULE_1, RULE_2, new Rule(1, "merchant-1", "US")));
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).hasSize(3));
+        assertThat(testedCollection.lookup("id", 1)).containsExactly(RULE_1);
+        assertThat(failures).isEmpty();
+    }
+
+    @Test
+    @DisplayName("indexes sharing a name - should fail the build")
+    void duplicateIndexNames() {
+        var builder = SyncedCollection.build(rules::get)
+                .index("merchant", Rule::getMerchantId)
+                .uniqueIndex("merchant", Rule::getId);
+
+        assertThatThrownBy(builder::buildAndSync)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("merchant");
+    }
+
+    @Value
+    private static class Rule {
+        int id;
+        String merchantId;
+        String country;
+    }
+
+}
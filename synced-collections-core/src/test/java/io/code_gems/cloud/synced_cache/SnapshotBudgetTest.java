@@ -0,0 +1,137 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Snapshot budget:")
+class SnapshotBudgetTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private final List<Exception> failures = new CopyOnWriteArrayList<>();
+    private final SyncListener listener = new SyncListener() {
+        @Override
+        public void onSyncFailed(Exception failure, int consecutiveFailures) {
+            failures.add(failure);
+        }
+    };
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("a snapshot of more than the max elements - should be rejected, keeping the previous one")
+    void maxElements() {
+        var supplied = new AtomicReference<>(elements(10));
+        testedCollection = SyncedCollection.build(supplied::get)
+                                           .maxElements(100)
+                                           .interval(INTERVAL)
+                                           .maxAllowedNoSyncIntervals(Integer.MAX_VALUE)
+                                           .listener(listener)
+                                           .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+
+        supplied.set(elements(101));
+        await().atMost(Duration.ofSeconds(2)).until(() -> !failures.isEmpty());
+        assertThat(failures.get(0)).isInstanceOf(SnapshotRejectedException.class);
+        assertThat(testedCollection).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("a snapshot changing size by more than the max ratio - should be rejected, keeping the previous one")
+    void maxSizeChangeRatio() {
+        var supplied = new AtomicReference<>(elements(10));
+        testedCollection = SyncedCollection.build(supplied::get)
+                                           .maxSizeChangeRatio(2.0)
+                                           .interval(INTERVAL)
+                                           .maxAllowedNoSyncIntervals(Integer.MAX_VALUE)
+                                           .listener(listener)
+                                           .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+
+        supplied.set(elements(4));
+        await().atMost(Duration.ofSeconds(2)).until(() -> !failures.isEmpty());
+        assertThat(testedCollection).hasSize(10);
+
+        supplied.set(elements(20));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).hasSize(20));
+    }
+
+    @Test
+    @DisplayName("a snapshot over the max estimated bytes - should be rejected, until out of sync")
+    void maxEstimatedBytes() {
+        var supplied = new AtomicReference<>(elements(10));
+        testedCollection = SyncedCollection.build(supplied::get)
+                                           .snapshotFactory(SnapshotFactory.indexed())
+                                           .maxEstimatedBytes(10_000L)
+                                           .interval(INTERVAL)
+                                           .maxAllowedNoSyncIntervals(2)
+                                           .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+        assertThat(testedCollection.estimatedBytes()).isBetween(1L, 10_000L);
+
+        supplied.set(elements(1_000));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThatThrownBy(testedCollection::size).isInstanceOf(OutOfSyncException.class));
+    }
+
+    @Test
+    @DisplayName("estimated bytes - should grow with the snapshot, and account for the element bytes estimator")
+    void estimatedBytes() {
+        var supplied = new AtomicReference<>(elements(100));
+        testedCollection = SyncedCollection.build(supplied::get).interval(INTERVAL).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> testedCollection.isSynced());
+        long hundredElementsBytes = testedCollection.estimatedBytes();
+
+        supplied.set(elements(1_000));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(testedCollection.estimatedBytes()).isGreaterThan(5 * hundredElementsBytes));
+
+        var estimated = SyncedCollection.build(supplied::get)
+                                        .elementBytesEstimator(element -> 1_000)
+                                        .initialCollection(elements(10))
+                                        .buildAndSync();
+        long estimatedBytes = estimated.estimatedBytes();
+        estimated.stopSync();
+        assertThat(estimatedBytes).isGreaterThan(10_000L);
+    }
+
+    @Test
+    @DisplayName("estimates of snapshot types - should account for their structure")
+    void snapshotTypes() {
+        var elements = elements(1_000);
+        var budget = SnapshotBudget.UNLIMITED;
+
+        long unmodifiable = budget.estimatedBytesOf(SnapshotFactory.<String>unmodifiable().create(elements));
+        long indexed = budget.estimatedBytesOf(SnapshotFactory.<String>indexed().create(elements));
+        long bloomFiltered = budget.estimatedBytesOf(
+                SnapshotFactory.bloomFiltered(SnapshotFactory.<String>indexed(), 0.01).create(elements));
+        long frontCoded = budget.estimatedBytesOf(SnapshotFactory.frontCoded().create(elements));
+
+        assertThat(indexed).isGreaterThan(unmodifiable);
+        assertThat(bloomFiltered).isGreaterThan(indexed);
+        assertThat(frontCoded).isLessThan(unmodifiable);
+    }
+
+    private static List<String> elements(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "element-" + i).collect(Collectors.toList());
+    }
+
+}
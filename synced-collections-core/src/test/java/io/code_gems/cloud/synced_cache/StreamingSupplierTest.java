@@ -0,0 +1,176 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+@DisplayName("Streaming supplier:")
+class StreamingSupplierTest {
+
+    private static final int SIZE = 1_000;
+
+    private SyncedCollection<String> testedCollection;
+
+    @AfterEach
+    void tearDown() {
+        if (testedCollection != null) {
+            testedCollection.stopSync();
+        }
+    }
+
+    @ParameterizedTest(name = "''{1}''")
+    @DisplayName("streamed elements should make up the synced collection, and the stream should be closed - using:")
+    @MethodSource
+    void streamedIntoSnapshot(SnapshotFactory<String> snapshotFactory, String factoryName, int sizeHint) {
+        var closedStreams = new AtomicInteger();
+        var streamingSupplier = new StreamingSyncCollectionSupplier<String>() {
+            @Override
+            public Stream<String> stream() {
+                return IntStream.range(0, SIZE).mapToObj(i -> "item-" + i).onClose(closedStreams::incrementAndGet);
+            }
+
+            @Override
+            public int sizeHint() {
+                return sizeHint;
+            }
+        };
+        testedCollection = SyncedCollection.build(streamingSupplier)
+                                           .interval(Duration.ofMillis(1))
+                                           .snapshotFactory(snapshotFactory)
+                                           .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> closedStreams.get() > 0);
+        assertThat(testedCollection).hasSize(SIZE);
+        assertThat(testedCollection.contains("item-0")).isTrue();
+        assertThat(testedCollection.contains("item-" + (SIZE - 1))).isTrue();
+        assertThat(testedCollection.contains("item-" + SIZE)).isFalse();
+        assertThat(testedCollection.iterator().next()).isEqualTo("item-0");
+    }
+
+    static Stream<Arguments> streamedIntoSnapshot() {
+        return Stream.of(
+                arguments(SnapshotFactory.unmodifiable(), "unmodifiable", StreamingSyncCollectionSupplier.UNKNOWN_SIZE),
+                arguments(SnapshotFactory.indexed(), "indexed, unknown size", StreamingSyncCollectionSupplier.UNKNOWN_SIZE),
+                arguments(SnapshotFactory.indexed(), "indexed, exact size hint", SIZE),
+                arguments(SnapshotFactory.indexed(), "indexed, under-estimated size hint", SIZE / 10),
+                arguments(SnapshotFactory.offHeap(ElementCodec.utf8()), "off-heap", SIZE)
+        );
+    }
+
+    @Test
+    @DisplayName("a stream of more elements than the max elements - should be rejected as soon as over the max")
+    void overMaxElements() {
+        var streamed = new AtomicInteger();
+        var failures = new CopyOnWriteArrayList<Exception>();
+        StreamingSyncCollectionSupplier<String> endlessSupplier = () -> Stream.iterate(0, i -> i + 1)
+                                                                              .peek(i -> streamed.incrementAndGet())
+                                                                              .map(i -> "item-" + i);
+        testedCollection = SyncedCollection.build(endlessSupplier)
+                                           .interval(Duration.ofHours(1))
+                                           .maxElements(100)
+                                           .listener(new SyncListener() {
+                                               @Override
+                                               public void onSyncFailed(Exception cause, int consecutiveFailures) {
+                                                   failures.add(cause);
+                                               }
+                                           })
+                                           .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> !failures.isEmpty());
+        assertThat(failures.get(0)).isInstanceOf(SnapshotRejectedException.class);
+        assertThat(streamed.get()).isEqualTo(101);
+    }
+
+    @Test
+    @DisplayName("a slow stream - should be timed as fetch time, its snapshot being built as fetched")
+    void streamTimedAsFetch() {
+        var stats = new CopyOnWriteArrayList<SyncStats>();
+        StreamingSyncCollectionSupplier<String> slowSupplier = () -> IntStream.range(0, 5)
+                                                                              .peek(i -> sleep(10))
+                                                                              .mapToObj(i -> "item-" + i);
+        testedCollection = SyncedCollection.build(slowSupplier)
+                                           .interval(Duration.ofHours(1))
+                                           .listener(new SyncListener() {
+                                               @Override
+                                               public void onSyncSucceeded(SyncStats syncStats) {
+                                                   stats.add(syncStats);
+                                               }
+                                           })
+                                           .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> !stats.isEmpty());
+        assertThat(stats.get(0).getFetchTime()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(stats.get(0).getBuildTime()).isZero();
+    }
+
+    @Test
+    @DisplayName("a failed stream - should fall back to the fallback suppliers")
+    void fallback() {
+        StreamingSyncCollectionSupplier<String> failingSupplier = () -> Stream.<String>of("item-0").peek(element -> {
+            throw new IllegalStateException("cursor closed");
+        });
+        testedCollection = SyncedCollection.build(failingSupplier)
+                                           .fallback(() -> List.of("stand-in"))
+                                           .interval(Duration.ofHours(1))
+                                           .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).until(testedCollection::isSynced);
+        assertThat(testedCollection).containsExactly("stand-in");
+    }
+
+    @Test
+    @DisplayName("a streaming supplier with a fetch timeout or hedging - should be rejected")
+    void timeoutOrHedgingRejected() {
+        StreamingSyncCollectionSupplier<String> streamingSupplier = () -> Stream.of("item-0");
+
+        assertThatThrownBy(() -> SyncedCollection.build(streamingSupplier).fetchTimeout(Duration.ofSeconds(1)).buildAndSync())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("streaming");
+        assertThatThrownBy(() -> SyncedCollection.build(streamingSupplier).hedgeAfterPercentile(95.0).buildAndSync())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("streaming");
+    }
+
+    @ParameterizedTest(name = "''{1}''")
+    @DisplayName("an indexed snapshot built from an iterator should keep duplicates and order - using:")
+    @MethodSource
+    void indexedFromIterator(List<String> elements, String description) {
+        var indexed = new IndexedCollection<>(elements.iterator(), StreamingSyncCollectionSupplier.UNKNOWN_SIZE);
+
+        assertThat(indexed).containsExactlyElementsOf(elements);
+        assertThat(elements).allMatch(indexed::contains);
+    }
+
+    static Stream<Arguments> indexedFromIterator() {
+        return Stream.of(
+                arguments(List.of(), "no elements"),
+                arguments(List.of("a", "b", "a", "c", "b"), "duplicates"),
+                arguments(IntStream.range(0, 100).mapToObj(i -> "item-" + (i % 37)).collect(Collectors.toList()), "duplicates across table growth")
+        );
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -1,6 +1,8 @@
 package io.code_gems.cloud.synced_cache;
 
 import org.assertj.core.api.ThrowableAssert;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,6 +27,8 @@ class SyncCollectionSyncBehaviorTest {
 
     private static final String ITEM_1 = "item-1";
     public static final Duration INTERVAL = Duration.ofMillis(1);
+    // built by the argument sources, and synced throughout the parameterized tests using them
+    private static final List<SyncedCollection<?>> ARGUMENT_COLLECTIONS = new CopyOnWriteArrayList<>();
 
     private MockSyncCollectionSupplier<String> mockSupplier;
     private SyncedCollection<String> testedCollection;
@@ -35,6 +41,16 @@ class SyncCollectionSyncBehaviorTest {
                 .buildAndSync();
     }
 
+    @AfterEach
+    void tearDown() {
+        testedCollection.stopSync();
+    }
+
+    @AfterAll
+    static void tearDownArguments() {
+        ARGUMENT_COLLECTIONS.forEach(SyncedCollection::stopSync);
+    }
+
     @Test
     @DisplayName("a new item added through sync - should appear in collection")
     void itemAddedInSubsequentSync() {
@@ -68,6 +84,7 @@ class SyncCollectionSyncBehaviorTest {
         var mockSupplier = new MockSyncCollectionSupplier<>();
         mockSupplier.mockSupplyFailure();
         var testedCollection = SyncedCollection.build(mockSupplier).interval(Duration.ofMillis(1)).buildAndSync();
+        ARGUMENT_COLLECTIONS.add(testedCollection);
         return Stream.of(
                 arguments((ThrowableAssert.ThrowingCallable) () -> testedCollection.contains(ITEM_1), "contains"),
                 arguments((ThrowableAssert.ThrowingCallable) () -> testedCollection.containsAll(Collections.singleton(ITEM_1)), "containsAll"),
@@ -95,6 +112,7 @@ class SyncCollectionSyncBehaviorTest {
                                                .interval(Duration.ofMillis(1))
                                                .initialCollection(Collections.emptyList())
                                                .buildAndSync();
+        ARGUMENT_COLLECTIONS.add(testedCollection);
         return Stream.of(
                 arguments((ThrowableAssert.ThrowingCallable) () -> testedCollection.contains(ITEM_1), "contains"),
                 arguments((ThrowableAssert.ThrowingCallable) () -> testedCollection.containsAll(Collections.singleton(ITEM_1)), "containsAll"),
@@ -0,0 +1,90 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SuppressWarnings("ResultOfMethodCallIgnored")
+@DisplayName("Sync metrics:")
+class SyncMetricsTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private MockSyncCollectionSupplier<String> mockSupplier;
+    private SyncMetrics metrics;
+    private SyncedCollection<String> testedCollection;
+
+    @BeforeEach
+    void setUp() {
+        mockSupplier = new MockSyncCollectionSupplier<>();
+        metrics = new SyncMetrics();
+        testedCollection = SyncedCollection.build(mockSupplier)
+                .interval(INTERVAL)
+                .maxAllowedNoSyncIntervals(0)
+                .listener(metrics)
+                .buildAndSync();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testedCollection.stopSync();
+    }
+
+    @Test
+    @DisplayName("successful syncs - should be counted, with the snapshot size and fetch latencies")
+    void syncSuccesses() {
+        mockSupplier.mockSupplyWith(List.of("item-1", "item-2", "item-3"));
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> {
+            assertThat(metrics.getSyncSuccesses()).isGreaterThan(1);
+            assertThat(metrics.getSnapshotSize()).isEqualTo(3);
+        });
+        testedCollection.stopSync();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(Arrays.stream(metrics.getFetchLatencyHistogram()).sum()).isEqualTo(metrics.getSyncSuccesses()));
+        assertThat(metrics.getFetchLatencyPercentile(99)).isPositive();
+        assertThat(metrics.getConsecutiveFailures()).isZero();
+        assertThat(metrics.getStaleness()).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("failed syncs - should be counted, and reads out of sync as well")
+    void syncFailures() {
+        mockSupplier.mockSupplyFailure();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> {
+            assertThat(metrics.getConsecutiveFailures()).isGreaterThan(1);
+            assertThatThrownBy(() -> testedCollection.contains("item-1")).isInstanceOf(OutOfSyncException.class);
+        });
+        testedCollection.stopSync();
+        assertThat(metrics.getSyncFailures()).isGreaterThan(1);
+        assertThat(metrics.getOutOfSyncReads()).isPositive();
+    }
+
+    @Test
+    @DisplayName("a failing listener - should not fail the sync")
+    void failingListener() {
+        var failingListener = new SyncListener() {
+            @Override
+            public void onSyncSucceeded(SyncStats stats) {
+                throw new IllegalStateException();
+            }
+        };
+        mockSupplier.mockSupplyWith(List.of("item-1"));
+        testedCollection.stopSync();
+        testedCollection = SyncedCollection.build(mockSupplier).interval(INTERVAL).listener(failingListener).buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection.contains("item-1")).isTrue());
+        assertThat(testedCollection.isSynced()).isTrue();
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Sync scheduler:")
+class SyncSchedulerTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private final SyncScheduler syncScheduler = SyncScheduler.builder().maxConcurrentSyncs(1).build();
+
+    @AfterEach
+    void tearDown() {
+        syncScheduler.close();
+    }
+
+    @Test
+    @DisplayName("syncs of many collections - should not run more than the max concurrent syncs at a time")
+    void concurrencyCap() {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var syncCount = new AtomicInteger();
+        SyncCollectionSupplier<String> supplier = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(1);
+            running.decrementAndGet();
+            syncCount.incrementAndGet();
+            return List.of();
+        };
+        for (int i = 0; i < 10; i++) {
+            SyncedCollection.build(supplier).interval(INTERVAL).jitter(INTERVAL).syncScheduler(syncScheduler).buildAndSync();
+        }
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> syncCount.get() > 50);
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("syncs due at the same time - should run by descending priority")
+    void priority() throws InterruptedException {
+        var blocker = new CountDownLatch(1);
+        var blocking = new CountDownLatch(1);
+        var syncOrder = new CopyOnWriteArrayList<Integer>();
+        SyncedCollection.build(() -> {
+            blocking.countDown();
+            awaitUninterruptedly(blocker);
+            return List.of();
+        }).interval(Duration.ofHours(1)).syncScheduler(syncScheduler).buildAndSync();
+        assertThat(blocking.await(2, TimeUnit.SECONDS)).isTrue();
+
+        for (int priority : new int[]{1, 3, 2}) {
+            SyncedCollection.build(() -> {
+                syncOrder.add(priority);
+                return List.of();
+            }).interval(Duration.ofHours(1)).priority(priority).syncScheduler(syncScheduler).buildAndSync();
+        }
+        // the syncs of all three queued behind the blocked one
+        await().during(Duration.ofMillis(50)).atMost(Duration.ofSeconds(2)).until(syncOrder::isEmpty);
+        blocker.countDown();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(syncOrder).containsExactly(3, 2, 1));
+    }
+
+    @Test
+    @DisplayName("a stopped collection - should not be synced anymore")
+    void stopSync() {
+        var syncCount = new AtomicInteger();
+        var testedCollection = SyncedCollection.build(() -> {
+            syncCount.incrementAndGet();
+            return List.of();
+        }).interval(INTERVAL).syncScheduler(syncScheduler).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> syncCount.get() > 1);
+
+        testedCollection.stopSync();
+
+        awaitNoMoreSyncs(syncCount);
+    }
+
+    @Test
+    @DisplayName("a closed scheduler - should not sync anymore")
+    void close() {
+        var syncCount = new AtomicInteger();
+        SyncedCollection.build(() -> {
+            syncCount.incrementAndGet();
+            return List.of();
+        }).interval(INTERVAL).syncScheduler(syncScheduler).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).until(() -> syncCount.get() > 1);
+
+        syncScheduler.close();
+
+        awaitNoMoreSyncs(syncCount);
+    }
+
+    /**
+     * Awaits the sync count to stay unchanged for a while - any sync running when stopped having completed.
+     */
+    private static void awaitNoMoreSyncs(AtomicInteger syncCount) {
+        var lastCount = new AtomicInteger(-1);
+        await().during(Duration.ofMillis(50)).atMost(Duration.ofSeconds(2))
+               .until(() -> lastCount.getAndSet(syncCount.get()) == lastCount.get());
+    }
+
+    private static void awaitUninterruptedly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
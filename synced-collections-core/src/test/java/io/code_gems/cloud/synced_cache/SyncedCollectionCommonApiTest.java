@@ -1,11 +1,14 @@
 package io.code_gems.cloud.synced_cache;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
@@ -17,6 +20,13 @@ class SyncedCollectionCommonApiTest {
     public static final String ITEM_1 = "item1";
     public static final String ITEM_2 = "item2";
 
+    private final List<SyncedCollection<String>> testedCollections = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        testedCollections.forEach(SyncedCollection::stopSync);
+    }
+
     @Test
     @DisplayName("'contains' behavior")
     void contains() {
@@ -105,10 +115,12 @@ class SyncedCollectionCommonApiTest {
     private SyncedCollection<String> createTestedCollectionOf(Collection<String> collection) {
         var syncSupplier = new MockSyncCollectionSupplier<String>();
         syncSupplier.mockSupplyWith(collection);
-        return SyncedCollection.build(syncSupplier)
-                               .initialCollection(collection)
-                               .interval(Duration.ofMillis(1))
-                               .buildAndSync();
+        var testedCollection = SyncedCollection.build(syncSupplier)
+                                               .initialCollection(collection)
+                                               .interval(Duration.ofMillis(1))
+                                               .buildAndSync();
+        testedCollections.add(testedCollection);
+        return testedCollection;
     }
 
     private void assertEqualFailure(Runnable testedAction, Runnable expectedAction, String actionName) {
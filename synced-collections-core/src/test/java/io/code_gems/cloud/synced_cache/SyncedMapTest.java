@@ -0,0 +1,78 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SuppressWarnings("ResultOfMethodCallIgnored")
+@DisplayName("Synced map:")
+class SyncedMapTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private SyncedMap<String, String> testedMap;
+
+    @AfterEach
+    void tearDown() {
+        if (testedMap != null) {
+            testedMap.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("entries added, changed and removed through sync - should be reflected by keyed lookups")
+    void entriesSynced() {
+        var supplied = new AtomicReference<Map<String, String>>(Map.of("key-1", "value-1"));
+        testedMap = SyncedMap.build(supplied::get).interval(INTERVAL).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedMap.get("key-1")).isEqualTo("value-1"));
+
+        supplied.set(Map.of("key-1", "value-2", "key-2", "value-1"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedMap.get("key-1")).isEqualTo("value-2"));
+        assertThat(testedMap.containsKey("key-2")).isTrue();
+
+        supplied.set(Collections.emptyMap());
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedMap.containsKey("key-1")).isFalse());
+        assertThat(testedMap.getOrDefault("key-1", "default")).isEqualTo("default");
+    }
+
+    @Test
+    @DisplayName("any attempt to mutate the map - should fail")
+    void readOnly() {
+        testedMap = SyncedMap.build(() -> Map.of("key-1", "value-1"))
+                             .initialMap(Map.of("key-1", "value-1"))
+                             .interval(INTERVAL)
+                             .buildAndSync();
+
+        assertThatThrownBy(() -> testedMap.put("key-2", "value-2")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> testedMap.remove("key-1")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> testedMap.putIfAbsent("key-2", "value-2")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(testedMap::clear).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("in case no sync succeeded during allowed period - lookups should fail")
+    void outOfSync() {
+        SyncMapSupplier<String, String> failingSupplier = () -> {
+            throw new RuntimeException();
+        };
+        testedMap = SyncedMap.build(failingSupplier)
+                             .initialMap(Map.of("key-1", "value-1"))
+                             .interval(INTERVAL)
+                             .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThatThrownBy(() -> testedMap.get("key-1")).isInstanceOf(OutOfSyncException.class));
+        assertThatThrownBy(() -> testedMap.containsKey("key-1")).isInstanceOf(OutOfSyncException.class);
+        assertThatThrownBy(testedMap::entrySet).isInstanceOf(OutOfSyncException.class);
+    }
+
+}
@@ -0,0 +1,120 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SuppressWarnings("ResultOfMethodCallIgnored")
+@DisplayName("Synced navigable set:")
+class SyncedNavigableSetTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private SyncedNavigableSet<Integer> testedSet;
+
+    @AfterEach
+    void tearDown() {
+        if (testedSet != null) {
+            testedSet.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("a sorted array snapshot - should navigate like a TreeSet of the same elements")
+    void sortedArraySet() {
+        var random = new Random(42);
+        List<Integer> values = new ArrayList<>();
+        random.ints(5_000, -10_000, 10_000).forEach(values::add);
+        var expected = new TreeSet<>(values);
+        var snapshot = new SortedArraySet<>(values, null);
+
+        assertThat(snapshot).containsExactlyElementsOf(expected);
+        assertThat(snapshot.first()).isEqualTo(expected.first());
+        assertThat(snapshot.last()).isEqualTo(expected.last());
+        for (int probe = -10_010; probe <= 10_010; probe += 7) {
+            assertThat(snapshot.lower(probe)).isEqualTo(expected.lower(probe));
+            assertThat(snapshot.floor(probe)).isEqualTo(expected.floor(probe));
+            assertThat(snapshot.ceiling(probe)).isEqualTo(expected.ceiling(probe));
+            assertThat(snapshot.higher(probe)).isEqualTo(expected.higher(probe));
+            assertThat(snapshot.contains(probe)).isEqualTo(expected.contains(probe));
+        }
+        assertThat(snapshot.subSet(-500, true, 500, false)).containsExactlyElementsOf(expected.subSet(-500, true, 500, false));
+        assertThat(snapshot.headSet(0, true)).containsExactlyElementsOf(expected.headSet(0, true));
+        assertThat(snapshot.tailSet(9_000, false).headSet(9_500)).containsExactlyElementsOf(expected.tailSet(9_000, false).headSet(9_500));
+        assertThat(snapshot.descendingSet()).containsExactlyElementsOf(expected.descendingSet());
+        assertThat(snapshot).isEqualTo(expected).hasSameHashCodeAs(expected);
+        assertThat(snapshot.headSet(0)).isEqualTo(expected.headSet(0)).isNotEqualTo(expected);
+        assertThatThrownBy(() -> snapshot.subSet(500, -500)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("a sorted array snapshot of a large collection, sorted in parallel - should hold the elements of a TreeSet, in order")
+    void parallelSortedArraySet() {
+        List<Integer> values = new ArrayList<>();
+        new Random(7).ints(200_000, 0, 150_000).forEach(values::add);
+        var expected = new TreeSet<>(Comparator.<Integer>reverseOrder());
+        expected.addAll(values);
+
+        var snapshot = new SortedArraySet<>(values, Comparator.<Integer>reverseOrder());
+
+        assertThat(snapshot).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("a custom comparator - should order and deduplicate the snapshot elements")
+    void comparator() {
+        var snapshot = new SortedArraySet<>(List.of("b", "A", "a", "C"), String.CASE_INSENSITIVE_ORDER);
+
+        assertThat(snapshot).containsExactly("A", "b", "C");
+        assertThat(snapshot.contains("B")).isTrue();
+        assertThat(snapshot.ceiling("Bb")).isEqualTo("C");
+        assertThat(snapshot.comparator()).isEqualTo(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    @Test
+    @DisplayName("elements added and removed through sync - should be reflected by range queries")
+    void synced() {
+        var supplied = new AtomicReference<List<Integer>>(List.of(10, 20, 30));
+        testedSet = SyncedNavigableSet.build(supplied::get)
+                                      .comparator(Comparator.reverseOrder())
+                                      .interval(INTERVAL)
+                                      .buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedSet).containsExactly(30, 20, 10));
+
+        supplied.set(List.of(10, 25, 30));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedSet.contains(20)).isFalse());
+        assertThat(testedSet.floor(26)).isEqualTo(30);
+        assertThat(testedSet.headSet(25, false)).containsExactly(30);
+        assertThatThrownBy(() -> testedSet.add(40)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("in case no sync succeeded during allowed period - navigation should fail")
+    void outOfSync() {
+        SyncCollectionSupplier<Integer> failingSupplier = () -> {
+            throw new RuntimeException();
+        };
+        testedSet = SyncedNavigableSet.build(failingSupplier)
+                                      .initialElements(List.of(1))
+                                      .interval(INTERVAL)
+                                      .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThatThrownBy(() -> testedSet.ceiling(0)).isInstanceOf(OutOfSyncException.class));
+        assertThatThrownBy(() -> testedSet.subSet(0, 2)).isInstanceOf(OutOfSyncException.class);
+        assertThatThrownBy(testedSet::first).isInstanceOf(OutOfSyncException.class);
+    }
+
+}
@@ -0,0 +1,101 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SuppressWarnings("ResultOfMethodCallIgnored")
+@DisplayName("Synced primitive sets:")
+class SyncedPrimitiveSetTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private SyncedLongSet testedLongSet;
+    private SyncedIntSet testedIntSet;
+
+    @AfterEach
+    void tearDown() {
+        if (testedLongSet != null) {
+            testedLongSet.stopSync();
+        }
+        if (testedIntSet != null) {
+            testedIntSet.stopSync();
+        }
+    }
+
+    @Test
+    @DisplayName("a long snapshot should contain exactly the distinct supplied values")
+    void longSnapshot() {
+        var random = new Random(42);
+        long[] values = random.longs(50_000).toArray();
+        values[0] = 0L;
+        values[1] = values[2];
+        Set<Long> expected = new HashSet<>();
+        for (long value : values) {
+            expected.add(value);
+        }
+        var snapshot = new LongHashSnapshot(values);
+
+        assertThat(snapshot.size()).isEqualTo(expected.size());
+        assertThat(expected).allMatch(snapshot::contains);
+        assertThat(random.longs(1_000).filter(value -> !expected.contains(value))).noneMatch(snapshot::contains);
+        assertThat(snapshot.stream().boxed().collect(Collectors.toSet())).isEqualTo(expected);
+        assertThat(snapshot.toArray()).hasSize(expected.size());
+    }
+
+    @Test
+    @DisplayName("an int snapshot should contain exactly the distinct supplied values")
+    void intSnapshot() {
+        var snapshot = new IntHashSnapshot(new int[]{0, -1, 7, 7, Integer.MIN_VALUE});
+
+        assertThat(snapshot.size()).isEqualTo(4);
+        assertThat(snapshot.contains(0)).isTrue();
+        assertThat(snapshot.contains(-1)).isTrue();
+        assertThat(snapshot.contains(Integer.MIN_VALUE)).isTrue();
+        assertThat(snapshot.contains(1)).isFalse();
+        assertThat(snapshot.stream().boxed()).containsExactlyInAnyOrder(0, -1, 7, Integer.MIN_VALUE);
+        assertThat(IntHashSnapshot.EMPTY.contains(0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("values added and removed through sync - should be reflected by 'contains'")
+    void longSetSynced() {
+        var supplied = new AtomicReference<>(new long[]{1L, 2L});
+        testedLongSet = SyncedLongSet.build(supplied::get).interval(INTERVAL).buildAndSync();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedLongSet.contains(2L)).isTrue());
+
+        supplied.set(new long[]{1L, 3L});
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedLongSet.contains(2L)).isFalse());
+        assertThat(testedLongSet.contains(3L)).isTrue();
+        assertThat(testedLongSet.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("in case no sync succeeded during allowed period - lookups should fail")
+    void intSetOutOfSync() {
+        SyncIntSetSupplier failingSupplier = () -> {
+            throw new RuntimeException();
+        };
+        testedIntSet = SyncedIntSet.build(failingSupplier)
+                                   .initialValues(new int[]{1})
+                                   .interval(INTERVAL)
+                                   .buildAndSync();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThatThrownBy(() -> testedIntSet.contains(1)).isInstanceOf(OutOfSyncException.class));
+        assertThatThrownBy(testedIntSet::size).isInstanceOf(OutOfSyncException.class);
+        assertThatThrownBy(testedIntSet::stream).isInstanceOf(OutOfSyncException.class);
+    }
+
+}
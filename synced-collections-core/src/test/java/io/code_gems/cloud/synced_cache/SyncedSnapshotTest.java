@@ -0,0 +1,73 @@
+package io.code_gems.cloud.synced_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Synced snapshot:")
+class SyncedSnapshotTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(1);
+
+    private final MockSyncCollectionSupplier<String> mockSupplier = new MockSyncCollectionSupplier<>();
+    private final SyncedCollection<String> testedCollection = SyncedCollection.build(mockSupplier)
+            .interval(INTERVAL)
+            .maxAllowedNoSyncIntervals(0)
+            .buildAndSync();
+
+    @AfterEach
+    void tearDown() {
+        testedCollection.stopSync();
+    }
+
+    @Test
+    @DisplayName("a snapshot view - should not be affected by later syncs")
+    void consistentView() {
+        mockSupplier.mockSupplyWith(List.of("item-1", "item-2"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).contains("item-1"));
+        var snapshot = testedCollection.snapshot();
+
+        mockSupplier.mockSupplyWith(List.of("item-3"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).containsExactly("item-3"));
+
+        assertThat(snapshot).hasSize(2).containsExactly("item-1", "item-2");
+        assertThat(snapshot.contains("item-3")).isFalse();
+        assertThat(testedCollection.snapshot().getVersion()).isGreaterThan(snapshot.getVersion());
+        assertThatThrownBy(() -> snapshot.add("item-4")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("a snapshot view - should tell when it was synced, and keep its version while syncs change nothing")
+    void versionAndSyncTime() {
+        mockSupplier.mockSupplyWith(List.of("item-1"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).contains("item-1"));
+        var snapshot = testedCollection.snapshot();
+
+        await().atMost(Duration.ofSeconds(2)).until(() ->
+                testedCollection.snapshot().getSyncedAt().orElseThrow().isAfter(snapshot.getSyncedAt().orElseThrow()));
+        assertThat(testedCollection.snapshot().getVersion()).isEqualTo(snapshot.getVersion());
+        assertThat(snapshot.getSyncedAt()).get().matches(syncedAt -> !syncedAt.isAfter(Instant.now()));
+    }
+
+    @Test
+    @DisplayName("a strict collection out of sync - should not provide a snapshot view, while views taken before remain readable")
+    void outOfSync() {
+        mockSupplier.mockSupplyWith(List.of("item-1"));
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(testedCollection).contains("item-1"));
+        var snapshot = testedCollection.snapshot();
+
+        mockSupplier.mockSupplyFailure();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThatThrownBy(testedCollection::snapshot).isInstanceOf(OutOfSyncException.class));
+        assertThat(snapshot).containsExactly("item-1");
+    }
+
+}